@@ -0,0 +1,157 @@
+package org.aurifolia.cloud.id.application.segment.allocator;
+
+import org.aurifolia.cloud.id.domain.segment.valueobject.SegmentRange;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 合并分配的号段区间分配器（组提交）
+ * <p>
+ * 同一业务标签的并发请求排队，同一时刻只有一个领导者向下游分配器发起一次max_id += n，
+ * 其余请求等待；领导者拿到区间后按排队顺序切片分给每个请求，再把领导权交给队首的下一个请求。
+ * 一次下游分配在途期间到达的请求自然合并到下一批，行锁获取次数随批次而不是调用方数量增长。
+ *
+ * @author Peng Dan
+ * @since 2.0
+ */
+public class CoalescingSegmentRangeAllocator implements SegmentRangeAllocator {
+
+    private final SegmentRangeAllocator delegate;
+    private final int maxBatchSize;
+    private final long windowNanos;
+    private final ConcurrentMap<String, TagQueue> queues = new ConcurrentHashMap<>();
+
+    /**
+     * @param delegate      下游分配器
+     * @param maxBatchSize  一批最多合并的请求数
+     * @param windowMicros  领导者发起分配前额外等待的时间（微秒），用于收集更多请求，0表示不等待
+     */
+    public CoalescingSegmentRangeAllocator(SegmentRangeAllocator delegate, int maxBatchSize, long windowMicros) {
+        this.delegate = delegate;
+        this.maxBatchSize = maxBatchSize;
+        this.windowNanos = TimeUnit.MICROSECONDS.toNanos(windowMicros);
+    }
+
+    @Override
+    public SegmentRange allocate(String bizTag, int count) {
+        TagQueue queue = queues.get(bizTag);
+        if (queue == null) {
+            queue = queues.computeIfAbsent(bizTag, TagQueue::new);
+        }
+        Waiter waiter = new Waiter(count);
+        if (queue.enqueue(waiter)) {
+            runBatch(queue);
+        }
+        try {
+            CompletableFuture.anyOf(waiter.result, waiter.promotion).join();
+            if (!waiter.result.isDone()) {
+                runBatch(queue);
+            }
+            return waiter.result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * 以领导者身份处理一批请求，完成后把领导权交给下一个排队的请求；
+     * 下游抛出任何异常（包括Error）时整批请求以该异常完成，不会有请求永远等待
+     */
+    private void runBatch(TagQueue queue) {
+        if (windowNanos > 0) {
+            LockSupport.parkNanos(windowNanos);
+        }
+        List<Waiter> batch = queue.drain(maxBatchSize);
+        int total = 0;
+        for (Waiter waiter : batch) {
+            total += waiter.count;
+        }
+        try {
+            SegmentRange range = delegate.allocate(queue.bizTag, total);
+            long next = range.getFirstSegment();
+            for (Waiter waiter : batch) {
+                next += waiter.count;
+                waiter.result.complete(SegmentRange.ofUpperBound(queue.bizTag, next - 1, waiter.count));
+            }
+        } catch (Throwable e) {
+            for (Waiter waiter : batch) {
+                waiter.result.completeExceptionally(e);
+            }
+        } finally {
+            Waiter successor = queue.release();
+            if (successor != null) {
+                successor.promotion.complete(null);
+            }
+        }
+    }
+
+    /**
+     * 单个业务标签的等待队列
+     */
+    private static final class TagQueue {
+
+        final String bizTag;
+        private final ArrayDeque<Waiter> waiting = new ArrayDeque<>();
+        private boolean leading;
+
+        TagQueue(String bizTag) {
+            this.bizTag = bizTag;
+        }
+
+        /**
+         * 入队，当前没有领导者时成为领导者
+         */
+        synchronized boolean enqueue(Waiter waiter) {
+            waiting.addLast(waiter);
+            if (leading) {
+                return false;
+            }
+            leading = true;
+            return true;
+        }
+
+        synchronized List<Waiter> drain(int maxBatchSize) {
+            List<Waiter> batch = new ArrayList<>(Math.min(waiting.size(), maxBatchSize));
+            while (!waiting.isEmpty() && batch.size() < maxBatchSize) {
+                batch.add(waiting.pollFirst());
+            }
+            return batch;
+        }
+
+        /**
+         * 释放领导权，队列非空时返回接任的请求
+         */
+        synchronized Waiter release() {
+            Waiter successor = waiting.peekFirst();
+            if (successor == null) {
+                leading = false;
+            }
+            return successor;
+        }
+    }
+
+    private static final class Waiter {
+
+        final int count;
+        final CompletableFuture<SegmentRange> result = new CompletableFuture<>();
+        final CompletableFuture<Void> promotion = new CompletableFuture<>();
+
+        Waiter(int count) {
+            this.count = count;
+        }
+    }
+}
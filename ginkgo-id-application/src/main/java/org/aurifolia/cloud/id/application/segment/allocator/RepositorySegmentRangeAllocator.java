@@ -0,0 +1,61 @@
+package org.aurifolia.cloud.id.application.segment.allocator;
+
+import org.aurifolia.cloud.common.ddd.DomainException;
+import org.aurifolia.cloud.id.application.segment.metrics.SegmentAllocationMetrics;
+import org.aurifolia.cloud.id.application.segment.metrics.SegmentAllocationMetrics.Phase;
+import org.aurifolia.cloud.id.domain.exception.IdDomainErrorCode;
+import org.aurifolia.cloud.id.domain.segment.repository.SegmentMetaRepository;
+import org.aurifolia.cloud.id.domain.segment.valueobject.SegmentRange;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * 直接落库的号段区间分配器
+ * <p>
+ * 每次分配都在独立事务中执行一次原子UPDATE。
+ * 使用编程式事务以便分别记录事务开启、UPDATE和提交的耗时；没有事务管理器（嵌入式存储）时直接执行。
+ *
+ * @author Peng Dan
+ * @since 2.0
+ */
+public class RepositorySegmentRangeAllocator implements SegmentRangeAllocator {
+
+    private final SegmentMetaRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final SegmentAllocationMetrics metrics;
+
+    /**
+     * @param transactionTemplate 事务模板，为null时不开启事务
+     */
+    public RepositorySegmentRangeAllocator(SegmentMetaRepository repository, TransactionTemplate transactionTemplate,
+                                           SegmentAllocationMetrics metrics) {
+        this.repository = repository;
+        this.transactionTemplate = transactionTemplate;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public SegmentRange allocate(String bizTag, int count) {
+        long startNanos = System.nanoTime();
+        if (transactionTemplate == null) {
+            SegmentRange range = update(bizTag, count);
+            metrics.recordPhase(bizTag, Phase.UPDATE, System.nanoTime() - startNanos);
+            return range;
+        }
+        long[] updatedNanos = new long[1];
+        SegmentRange range = transactionTemplate.execute(status -> {
+            long begunNanos = System.nanoTime();
+            metrics.recordPhase(bizTag, Phase.BEGIN, begunNanos - startNanos);
+            SegmentRange allocated = update(bizTag, count);
+            updatedNanos[0] = System.nanoTime();
+            metrics.recordPhase(bizTag, Phase.UPDATE, updatedNanos[0] - begunNanos);
+            return allocated;
+        });
+        metrics.recordPhase(bizTag, Phase.COMMIT, System.nanoTime() - updatedNanos[0]);
+        return range;
+    }
+
+    private SegmentRange update(String bizTag, int count) {
+        return repository.allocate(bizTag, count)
+                .orElseThrow(() -> new DomainException(IdDomainErrorCode.BIZ_TAG_NOT_FOUND, bizTag));
+    }
+}
@@ -0,0 +1,69 @@
+package org.aurifolia.cloud.id.application.segment.allocator;
+
+import lombok.extern.slf4j.Slf4j;
+import org.aurifolia.cloud.id.domain.segment.valueobject.SegmentRange;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * 内存预留号段区间分配器（服务端双缓冲）
+ * <p>
+ * 每个业务标签一次向下游分配器持久化预留一整块号段（如max_id += 1000），
+ * 之后的请求直接从内存中的当前块原子切割；当前块剩余量低于低水位时异步预留下一块。
+ * 进程非正常退出时，块中未分发的号段被跳过，不会重复分配。
+ * 请求数量大于块大小时直接交给下游分配器。
+ *
+ * @author Peng Dan
+ * @since 2.0
+ */
+@Slf4j
+public class ReservingSegmentRangeAllocator implements SegmentRangeAllocator {
+
+    private final SegmentRangeAllocator delegate;
+    private final int blockSize;
+    private final int lowWaterMark;
+    private final ExecutorService prefetchExecutor;
+    private final ConcurrentMap<String, TagReservation> reservations = new ConcurrentHashMap<>();
+
+    /**
+     * @param delegate     持久化预留号段块的下游分配器
+     * @param blockSize    每次预留的号段数
+     * @param lowWaterMark 当前块剩余号段数低于该值时异步预留下一块
+     */
+    public ReservingSegmentRangeAllocator(SegmentRangeAllocator delegate, int blockSize, int lowWaterMark) {
+        this.delegate = delegate;
+        this.blockSize = blockSize;
+        this.lowWaterMark = lowWaterMark;
+        this.prefetchExecutor = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "segment-reservation-prefetch");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @Override
+    public SegmentRange allocate(String bizTag, int count) {
+        if (count > blockSize) {
+            return delegate.allocate(bizTag, count);
+        }
+        TagReservation reservation = reservations.get(bizTag);
+        if (reservation == null) {
+            reservation = reservations.computeIfAbsent(bizTag, this::newReservation);
+        }
+        return reservation.allocate(count);
+    }
+
+    private TagReservation newReservation(String bizTag) {
+        return new TagReservation(bizTag, () -> delegate.allocate(bizTag, blockSize), lowWaterMark, prefetchExecutor);
+    }
+
+    /**
+     * 停止异步预留线程，未分发的号段随进程退出被跳过
+     */
+    public void shutdown() {
+        prefetchExecutor.shutdown();
+    }
+}
@@ -0,0 +1,24 @@
+package org.aurifolia.cloud.id.application.segment.allocator;
+
+import org.aurifolia.cloud.id.domain.segment.valueobject.SegmentRange;
+
+/**
+ * 号段区间分配器
+ * <p>
+ * 应用层分配号段的抽象，实现可以直接落库，也可以在内存中预留后再分发
+ *
+ * @author Peng Dan
+ * @since 2.0
+ */
+public interface SegmentRangeAllocator {
+
+    /**
+     * 分配连续count个号段
+     *
+     * @param bizTag 业务标签
+     * @param count  分配数量
+     * @return 分配的号段区间
+     * @throws org.aurifolia.cloud.common.ddd.DomainException 业务标签不存在
+     */
+    SegmentRange allocate(String bizTag, int count);
+}
@@ -0,0 +1,99 @@
+package org.aurifolia.cloud.id.application.segment.allocator;
+
+import lombok.extern.slf4j.Slf4j;
+import org.aurifolia.cloud.id.domain.segment.valueobject.SegmentRange;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * 单个业务标签的号段预留
+ * <p>
+ * 当前块内通过AtomicLong.getAndAdd无锁切割，块耗尽时加锁切换到预取好的下一块（没有则同步预留）。
+ * 请求的区间跨越块尾时跳过当前块剩余部分，保证返回的区间连续。
+ *
+ * @author Peng Dan
+ * @since 2.0
+ */
+@Slf4j
+final class TagReservation {
+
+    private final String bizTag;
+    private final Supplier<SegmentRange> blockClaimer;
+    private final int lowWaterMark;
+    private final Executor prefetchExecutor;
+
+    private volatile Block current;
+    private CompletableFuture<Block> nextBlock;
+
+    TagReservation(String bizTag, Supplier<SegmentRange> blockClaimer, int lowWaterMark, Executor prefetchExecutor) {
+        this.bizTag = bizTag;
+        this.blockClaimer = blockClaimer;
+        this.lowWaterMark = lowWaterMark;
+        this.prefetchExecutor = prefetchExecutor;
+    }
+
+    SegmentRange allocate(int count) {
+        while (true) {
+            Block block = current;
+            if (block != null) {
+                long start = block.next.getAndAdd(count);
+                long end = start + count;
+                if (end <= block.end) {
+                    if (block.end - end <= lowWaterMark) {
+                        prefetch(block);
+                    }
+                    return SegmentRange.ofUpperBound(bizTag, end - 1, count);
+                }
+            }
+            switchBlock(block);
+        }
+    }
+
+    private synchronized void prefetch(Block trigger) {
+        if (nextBlock != null || current != trigger) {
+            return;
+        }
+        nextBlock = CompletableFuture.supplyAsync(this::claimBlock, prefetchExecutor);
+    }
+
+    private synchronized void switchBlock(Block exhausted) {
+        if (current != exhausted) {
+            return;
+        }
+        CompletableFuture<Block> pending = nextBlock;
+        nextBlock = null;
+        Block fresh = null;
+        if (pending != null) {
+            try {
+                fresh = pending.join();
+            } catch (CompletionException e) {
+                log.warn("Segment block prefetch failed, claiming synchronously: bizTag={}", bizTag, e.getCause());
+            }
+        }
+        current = fresh != null ? fresh : claimBlock();
+    }
+
+    private Block claimBlock() {
+        SegmentRange range = blockClaimer.get();
+        log.debug("Segment block reserved: bizTag={}, first={}, max={}", bizTag, range.getFirstSegment(), range.getMaxId());
+        return new Block(range.getFirstSegment(), range.getMaxId() + 1);
+    }
+
+    /**
+     * 已持久化预留的号段块[next, end)
+     */
+    private static final class Block {
+
+        final AtomicLong next;
+        final long end;
+
+        Block(long first, long end) {
+            this.next = new AtomicLong(first);
+            this.end = end;
+        }
+    }
+}
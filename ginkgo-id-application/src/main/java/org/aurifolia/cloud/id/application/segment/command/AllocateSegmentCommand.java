@@ -19,4 +19,13 @@ public class AllocateSegmentCommand {
      * 业务标签
      */
     private String bizTag;
+
+    /**
+     * 分配的号段数量
+     */
+    private int count;
+
+    public AllocateSegmentCommand(String bizTag) {
+        this(bizTag, 1);
+    }
 }
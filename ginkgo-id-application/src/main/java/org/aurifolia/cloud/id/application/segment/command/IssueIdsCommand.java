@@ -0,0 +1,32 @@
+package org.aurifolia.cloud.id.application.segment.command;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 批量签发ID命令
+ *
+ * @author Peng Dan
+ * @since 2.0
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class IssueIdsCommand {
+
+    /**
+     * 单次签发数量上限
+     */
+    public static final int MAX_COUNT = 1_000_000;
+
+    /**
+     * 业务标签
+     */
+    private String bizTag;
+
+    /**
+     * 签发的ID数量，范围1~MAX_COUNT
+     */
+    private int count;
+}
@@ -19,4 +19,13 @@ public class SegmentMetaRegisterCommand {
      * 业务标签
      */
     private String bizTag;
+
+    /**
+     * 序列号位宽，为null时使用默认值
+     */
+    private Integer seqBits;
+
+    public SegmentMetaRegisterCommand(String bizTag) {
+        this.bizTag = bizTag;
+    }
 }
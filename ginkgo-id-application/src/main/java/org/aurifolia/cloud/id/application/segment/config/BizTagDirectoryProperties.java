@@ -0,0 +1,25 @@
+package org.aurifolia.cloud.id.application.segment.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 业务标签目录配置
+ *
+ * @author Peng Dan
+ * @since 2.0
+ */
+@Data
+@ConfigurationProperties(prefix = "ginkgo.id.server.directory")
+public class BizTagDirectoryProperties {
+
+    /**
+     * 轮询其他实例注册的业务标签的间隔（毫秒），默认5000
+     */
+    private Long pollIntervalMillis = 5000L;
+
+    /**
+     * 未知业务标签否定结果的缓存时间（毫秒），默认5000
+     */
+    private Long negativeTtlMillis = 5000L;
+}
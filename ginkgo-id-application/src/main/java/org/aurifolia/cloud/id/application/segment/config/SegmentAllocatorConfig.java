@@ -0,0 +1,81 @@
+package org.aurifolia.cloud.id.application.segment.config;
+
+import org.aurifolia.cloud.id.application.segment.allocator.CoalescingSegmentRangeAllocator;
+import org.aurifolia.cloud.id.application.segment.allocator.RepositorySegmentRangeAllocator;
+import org.aurifolia.cloud.id.application.segment.allocator.ReservingSegmentRangeAllocator;
+import org.aurifolia.cloud.id.application.segment.allocator.SegmentRangeAllocator;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.aurifolia.cloud.id.application.segment.directory.BizTagDirectory;
+import org.aurifolia.cloud.id.application.segment.metrics.SegmentAllocationMetrics;
+import org.aurifolia.cloud.id.domain.segment.repository.SegmentMetaRepository;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * 号段区间分配器配置
+ * <p>
+ * 落库分配器之上按配置依次叠加并发合并和内存预留，以及分配前校验业务标签的内存目录
+ *
+ * @author Peng Dan
+ * @since 2.0
+ */
+@Configuration
+@EnableConfigurationProperties({SegmentReservationProperties.class, SegmentCoalescingProperties.class,
+        BizTagDirectoryProperties.class})
+public class SegmentAllocatorConfig {
+
+    /**
+     * 业务标签目录，启动时加载全部标签
+     */
+    @Bean(initMethod = "start", destroyMethod = "shutdown")
+    public BizTagDirectory bizTagDirectory(SegmentMetaRepository repository, BizTagDirectoryProperties properties) {
+        return new BizTagDirectory(repository, properties.getPollIntervalMillis(), properties.getNegativeTtlMillis());
+    }
+
+    /**
+     * 号段分配指标，没有MeterRegistry（未引入actuator）时使用本地SimpleMeterRegistry，热点标签查询仍可用
+     */
+    @Bean(destroyMethod = "shutdown")
+    public SegmentAllocationMetrics segmentAllocationMetrics(ObjectProvider<MeterRegistry> meterRegistry,
+                                                             BizTagDirectory bizTagDirectory) {
+        return new SegmentAllocationMetrics(meterRegistry.getIfAvailable(SimpleMeterRegistry::new), bizTagDirectory);
+    }
+
+    /**
+     * 直接落库的分配器，没有事务管理器（嵌入式存储）时不开启事务
+     */
+    @Bean
+    public RepositorySegmentRangeAllocator repositorySegmentRangeAllocator(
+            SegmentMetaRepository repository, ObjectProvider<PlatformTransactionManager> transactionManager,
+            SegmentAllocationMetrics metrics) {
+        PlatformTransactionManager manager = transactionManager.getIfAvailable();
+        return new RepositorySegmentRangeAllocator(repository,
+                manager != null ? new TransactionTemplate(manager) : null, metrics);
+    }
+
+    /**
+     * 应用服务使用的分配器：落库 -> 合并（可选）-> 内存预留（可选）
+     */
+    @Bean
+    @Primary
+    public SegmentRangeAllocator segmentRangeAllocator(RepositorySegmentRangeAllocator repositoryAllocator,
+                                                       SegmentReservationProperties reservationProperties,
+                                                       SegmentCoalescingProperties coalescingProperties) {
+        SegmentRangeAllocator allocator = repositoryAllocator;
+        if (coalescingProperties.getEnabled()) {
+            allocator = new CoalescingSegmentRangeAllocator(allocator,
+                    coalescingProperties.getMaxBatchSize(), coalescingProperties.getWindowMicros());
+        }
+        if (!reservationProperties.getEnabled()) {
+            return allocator;
+        }
+        return new ReservingSegmentRangeAllocator(allocator,
+                reservationProperties.getBlockSize(), reservationProperties.getLowWaterMark());
+    }
+}
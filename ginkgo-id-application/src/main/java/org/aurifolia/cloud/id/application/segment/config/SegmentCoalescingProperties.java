@@ -0,0 +1,30 @@
+package org.aurifolia.cloud.id.application.segment.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 服务端号段合并分配配置
+ *
+ * @author Peng Dan
+ * @since 2.0
+ */
+@Data
+@ConfigurationProperties(prefix = "ginkgo.id.server.coalescing")
+public class SegmentCoalescingProperties {
+
+    /**
+     * 是否合并同一业务标签的并发落库分配，默认true
+     */
+    private Boolean enabled = true;
+
+    /**
+     * 一批最多合并的请求数，默认256
+     */
+    private Integer maxBatchSize = 256;
+
+    /**
+     * 领导者发起落库前额外等待的时间（微秒），默认0，即只合并上一批在途期间到达的请求
+     */
+    private Long windowMicros = 0L;
+}
@@ -0,0 +1,30 @@
+package org.aurifolia.cloud.id.application.segment.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 服务端号段预留配置
+ *
+ * @author Peng Dan
+ * @since 2.0
+ */
+@Data
+@ConfigurationProperties(prefix = "ginkgo.id.server.reservation")
+public class SegmentReservationProperties {
+
+    /**
+     * 是否启用内存预留，默认true；关闭后每次分配都落库
+     */
+    private Boolean enabled = true;
+
+    /**
+     * 每个业务标签每次持久化预留的号段数，默认1000
+     */
+    private Integer blockSize = 1000;
+
+    /**
+     * 当前块剩余号段数低于该值时异步预留下一块，默认200
+     */
+    private Integer lowWaterMark = 200;
+}
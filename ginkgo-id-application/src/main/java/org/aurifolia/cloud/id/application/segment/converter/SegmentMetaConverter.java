@@ -3,6 +3,7 @@ package org.aurifolia.cloud.id.application.segment.converter;
 import org.aurifolia.cloud.id.application.segment.dto.SegmentMetaDTO;
 import org.aurifolia.cloud.id.domain.segment.entity.SegmentMeta;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 import org.mapstruct.factory.Mappers;
 
 /**
@@ -19,5 +20,6 @@ public interface SegmentMetaConverter {
     /**
      * Entity转DTO
      */
+    @Mapping(target = "allocatedCount", ignore = true)
     SegmentMetaDTO toDTO(SegmentMeta entity);
 }
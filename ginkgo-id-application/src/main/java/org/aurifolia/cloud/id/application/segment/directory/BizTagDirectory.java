@@ -0,0 +1,145 @@
+package org.aurifolia.cloud.id.application.segment.directory;
+
+import lombok.extern.slf4j.Slf4j;
+import org.aurifolia.cloud.id.domain.segment.entity.SegmentMeta;
+import org.aurifolia.cloud.id.domain.segment.repository.SegmentMetaRepository;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 业务标签目录
+ * <p>
+ * 启动时从segment_meta加载全部业务标签及其序列号位宽，注册时同步更新，分配前先在内存中判断标签是否存在，
+ * 未知标签不访问数据库直接拒绝。序列号位宽注册后不可变更，因此缓存无需失效。
+ * 其他实例注册的标签通过定时轮询MAX(id)发现：主键变化时增量加载新标签。
+ * 自增主键可能乱序提交，轮询可能漏掉个别标签，因此未知标签的否定结果只缓存negativeTtl，
+ * 过期后再用一次不加锁的查询确认。
+ *
+ * @author Peng Dan
+ * @since 2.0
+ */
+@Slf4j
+public class BizTagDirectory {
+
+    private static final int MAX_NEGATIVE_ENTRIES = 10_000;
+
+    private final SegmentMetaRepository repository;
+    private final long pollIntervalMillis;
+    private final long negativeTtlNanos;
+    private final ConcurrentMap<String, Integer> knownTags = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Long> negativeTags = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService poller;
+    private volatile long version;
+
+    /**
+     * @param repository         号段元数据仓储
+     * @param pollIntervalMillis 轮询MAX(id)的间隔（毫秒）
+     * @param negativeTtlMillis  未知标签否定结果的缓存时间（毫秒）
+     */
+    public BizTagDirectory(SegmentMetaRepository repository, long pollIntervalMillis, long negativeTtlMillis) {
+        this.repository = repository;
+        this.pollIntervalMillis = pollIntervalMillis;
+        this.negativeTtlNanos = TimeUnit.MILLISECONDS.toNanos(negativeTtlMillis);
+        this.poller = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "biz-tag-directory-poller");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * 加载全部业务标签并启动轮询
+     */
+    public void start() {
+        refresh();
+        log.info("Biz tag directory loaded: tags={}, version={}", knownTags.size(), version);
+        poller.scheduleWithFixedDelay(this::poll, pollIntervalMillis, pollIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 业务标签是否存在
+     */
+    public boolean exists(String bizTag) {
+        return seqBits(bizTag) != null;
+    }
+
+    /**
+     * 业务标签的序列号位宽
+     * <p>
+     * 已知标签直接返回缓存值；未知标签在否定缓存有效期内直接返回null，否则查询一次数据库确认
+     *
+     * @return 序列号位宽，业务标签不存在时返回null
+     */
+    public Integer seqBits(String bizTag) {
+        Integer seqBits = knownTags.get(bizTag);
+        if (seqBits != null) {
+            return seqBits;
+        }
+        long now = System.nanoTime();
+        Long checkedAt = negativeTags.get(bizTag);
+        if (checkedAt != null && now - checkedAt < negativeTtlNanos) {
+            return null;
+        }
+        Optional<SegmentMeta> meta = repository.findByBizTag(bizTag);
+        if (meta.isPresent()) {
+            register(meta.get());
+            return meta.get().getSeqBits();
+        }
+        if (negativeTags.size() >= MAX_NEGATIVE_ENTRIES) {
+            negativeTags.clear();
+        }
+        negativeTags.put(bizTag, now);
+        return null;
+    }
+
+    /**
+     * 业务标签是否已在目录中（只查内存，不访问数据库）
+     */
+    public boolean isKnown(String bizTag) {
+        return knownTags.containsKey(bizTag);
+    }
+
+    /**
+     * 登记新注册的业务标签
+     */
+    public void register(SegmentMeta meta) {
+        knownTags.put(meta.getBizTag(), meta.getSeqBits());
+        negativeTags.remove(meta.getBizTag());
+    }
+
+    private void poll() {
+        try {
+            if (repository.findMaxId() != version) {
+                refresh();
+            }
+        } catch (Exception e) {
+            log.warn("Biz tag directory poll exception", e);
+        }
+    }
+
+    /**
+     * 增量加载上次版本之后注册的标签；先读版本再读标签，期间新插入的标签下次轮询会再读一遍
+     */
+    private void refresh() {
+        long newVersion = repository.findMaxId();
+        List<SegmentMeta> tags = repository.findByIdGreaterThan(version);
+        tags.forEach(this::register);
+        if (!tags.isEmpty()) {
+            log.debug("Biz tag directory refreshed: added={}, version={}", tags.size(), newVersion);
+        }
+        version = newVersion;
+    }
+
+    /**
+     * 停止轮询
+     */
+    public void shutdown() {
+        poller.shutdown();
+    }
+}
@@ -0,0 +1,32 @@
+package org.aurifolia.cloud.id.application.segment.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 批量签发的ID，按连续区间编码
+ *
+ * @author Peng Dan
+ * @since 2.0
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class IdRunsDTO {
+
+    /**
+     * 业务标签
+     */
+    private String bizTag;
+
+    /**
+     * 签发的ID数量
+     */
+    private Integer count;
+
+    /**
+     * [start0, length0, start1, length1, ...]，区间内的ID为start ~ start + length - 1
+     */
+    private long[] runs;
+}
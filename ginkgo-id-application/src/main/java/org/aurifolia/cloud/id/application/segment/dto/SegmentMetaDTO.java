@@ -4,10 +4,10 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import java.time.LocalDateTime;
-
 /**
- * 号段元数据DTO
+ * 号段分配结果DTO
+ * <p>
+ * 分配只执行一条UPDATE，不读取整行，因此不包含主键和创建、更新时间
  *
  * @author Peng Dan
  * @since 2.0
@@ -17,11 +17,6 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 public class SegmentMetaDTO {
 
-    /**
-     * 自增主键ID
-     */
-    private Long id;
-
     /**
      * 业务标签
      */
@@ -33,12 +28,12 @@ public class SegmentMetaDTO {
     private Long maxId;
 
     /**
-     * 创建时间
+     * 本次分配的号段数量，分配的区间为[maxId - allocatedCount + 1, maxId]
      */
-    private LocalDateTime createTime;
+    private Integer allocatedCount;
 
     /**
-     * 更新时间
+     * 序列号位宽，每个号段包含2^seqBits个ID
      */
-    private LocalDateTime updateTime;
+    private Integer seqBits;
 }
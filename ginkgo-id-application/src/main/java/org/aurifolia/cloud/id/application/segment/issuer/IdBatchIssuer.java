@@ -0,0 +1,20 @@
+package org.aurifolia.cloud.id.application.segment.issuer;
+
+/**
+ * 批量ID签发器
+ * <p>
+ * 服务端按业务标签持有ID生成器，从本地分配的号段中切割ID，签发时不访问数据库；由基础设施层实现
+ *
+ * @author Peng Dan
+ * @since 2.0
+ */
+public interface IdBatchIssuer {
+
+    /**
+     * 签发count个ID
+     *
+     * @return [start0, length0, start1, length1, ...]，区间长度之和为count
+     * @throws org.aurifolia.cloud.id.common.exception.IdGenerationException 号段获取失败，无法签发
+     */
+    long[] issueRuns(String bizTag, int count);
+}
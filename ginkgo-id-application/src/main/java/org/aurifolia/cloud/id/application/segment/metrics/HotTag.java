@@ -0,0 +1,13 @@
+package org.aurifolia.cloud.id.application.segment.metrics;
+
+/**
+ * 热点业务标签
+ *
+ * @param bizTag            业务标签
+ * @param segmentsPerSecond 平滑后的号段分配速率（个/秒）
+ * @param segmentsAllocated 启动以来分配的号段总数
+ * @author Peng Dan
+ * @since 2.0
+ */
+public record HotTag(String bizTag, double segmentsPerSecond, long segmentsAllocated) {
+}
@@ -0,0 +1,174 @@
+package org.aurifolia.cloud.id.application.segment.metrics;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.aurifolia.cloud.id.application.segment.directory.BizTagDirectory;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 号段分配指标
+ * <p>
+ * 按业务标签记录分配各阶段耗时：事务开启（获取连接）、UPDATE（包含InnoDB行锁等待，
+ * 单条UPDATE内加锁与更新无法再拆分）、提交、应用服务总耗时，以及各入口处理方法（Controller、Dubbo服务实现、
+ * 二进制端点、订阅推送任务）的方法体耗时。处理方法耗时不含网络传输、序列化和框架分发，
+ * 与服务耗时之差只是参数转换与结果组装的开销；传输层开销需用客户端观测的获取延迟减去处理方法耗时估算。
+ * 另按秒统计每个标签的号段分配速率（指数平滑），用于速率指标和热点标签查询。
+ * 未在业务标签目录中的标签统一记为unknown，避免错误配置的客户端制造大量指标。
+ *
+ * @author Peng Dan
+ * @since 2.0
+ */
+@Slf4j
+public class SegmentAllocationMetrics {
+
+    /**
+     * 分配阶段
+     */
+    public enum Phase {
+        BEGIN, UPDATE, COMMIT, SERVICE;
+
+        private final String tagValue = name().toLowerCase();
+    }
+
+    private static final String PREFIX = "ginkgo.id.server.";
+    private static final String UNKNOWN_TAG = "unknown";
+    private static final long TICK_MILLIS = 1000;
+    private static final double RATE_SMOOTHING = 0.3;
+
+    private final MeterRegistry registry;
+    private final BizTagDirectory directory;
+    private final ConcurrentMap<String, TagMetrics> tags = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService ticker;
+
+    public SegmentAllocationMetrics(MeterRegistry registry, BizTagDirectory directory) {
+        this.registry = registry;
+        this.directory = directory;
+        this.ticker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "segment-allocation-metrics");
+            t.setDaemon(true);
+            return t;
+        });
+        ticker.scheduleAtFixedRate(this::tick, TICK_MILLIS, TICK_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 记录分配阶段耗时
+     */
+    public void recordPhase(String bizTag, Phase phase, long nanos) {
+        tagMetrics(bizTag).phases[phase.ordinal()].record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 记录入口处理方法的方法体耗时（不含网络传输、序列化和框架分发）
+     *
+     * @param transport 入口类型，如http、dubbo
+     */
+    public void recordHandler(String bizTag, String transport, long nanos) {
+        tagMetrics(bizTag).handler(transport).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 记录成功分配的号段数
+     */
+    public void recordAllocated(String bizTag, int count) {
+        tagMetrics(bizTag).allocated.add(count);
+    }
+
+    /**
+     * 按分配速率降序返回最热的limit个业务标签
+     */
+    public List<HotTag> hottestTags(int limit) {
+        return tags.values().stream()
+                .map(TagMetrics::toHotTag)
+                .sorted(Comparator.comparingDouble(HotTag::segmentsPerSecond).reversed()
+                        .thenComparing(Comparator.comparingLong(HotTag::segmentsAllocated).reversed()))
+                .limit(limit)
+                .toList();
+    }
+
+    private TagMetrics tagMetrics(String bizTag) {
+        String key = bizTag != null && directory.isKnown(bizTag) ? bizTag : UNKNOWN_TAG;
+        TagMetrics metrics = tags.get(key);
+        return metrics != null ? metrics : tags.computeIfAbsent(key, TagMetrics::new);
+    }
+
+    private void tick() {
+        try {
+            for (TagMetrics metrics : tags.values()) {
+                metrics.tick();
+            }
+        } catch (Exception e) {
+            log.warn("Segment allocation rate update exception", e);
+        }
+    }
+
+    /**
+     * 停止速率统计
+     */
+    public void shutdown() {
+        ticker.shutdown();
+    }
+
+    /**
+     * 单个业务标签的指标
+     */
+    private final class TagMetrics {
+
+        final String bizTag;
+        final Tags tags;
+        final Timer[] phases = new Timer[Phase.values().length];
+        final ConcurrentMap<String, Timer> handlers = new ConcurrentHashMap<>();
+        final LongAdder allocated = new LongAdder();
+        /**
+         * 只由ticker线程写入
+         */
+        long lastCount;
+        volatile double rate;
+
+        TagMetrics(String bizTag) {
+            this.bizTag = bizTag;
+            this.tags = Tags.of("bizTag", bizTag);
+            for (Phase phase : Phase.values()) {
+                phases[phase.ordinal()] = Timer.builder(PREFIX + "allocate.phase")
+                        .tags(tags.and("phase", phase.tagValue))
+                        .description("号段分配各阶段耗时")
+                        .register(registry);
+            }
+            FunctionCounter.builder(PREFIX + "segments.allocated", allocated, LongAdder::sum)
+                    .tags(tags).description("分配的号段数").register(registry);
+            Gauge.builder(PREFIX + "allocation.rate", this, m -> m.rate)
+                    .tags(tags).baseUnit("segments/s").description("平滑后的号段分配速率").register(registry);
+        }
+
+        Timer handler(String transport) {
+            Timer timer = handlers.get(transport);
+            return timer != null ? timer : handlers.computeIfAbsent(transport, t -> Timer.builder(PREFIX + "allocate.handler")
+                    .tags(tags.and("transport", t))
+                    .description("号段分配入口处理方法耗时，不含网络传输、序列化和框架分发")
+                    .register(registry));
+        }
+
+        void tick() {
+            long count = allocated.sum();
+            double perSecond = (count - lastCount) * 1000.0 / TICK_MILLIS;
+            lastCount = count;
+            rate += RATE_SMOOTHING * (perSecond - rate);
+        }
+
+        HotTag toHotTag() {
+            return new HotTag(bizTag, rate, allocated.sum());
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package org.aurifolia.cloud.id.application.segment.service;
+
+import org.aurifolia.cloud.id.application.segment.command.IssueIdsCommand;
+import org.aurifolia.cloud.id.application.segment.dto.IdRunsDTO;
+
+/**
+ * ID签发应用服务接口
+ * <p>
+ * 直接返回现成的ID，供无法内嵌SDK的客户端（非JVM服务、SQL脚本等）使用
+ *
+ * @author Peng Dan
+ * @since 2.0
+ */
+public interface IdIssueAppService {
+
+    /**
+     * 批量签发ID
+     *
+     * @throws org.aurifolia.cloud.common.ddd.DomainException 业务标签未注册或数量非法
+     */
+    IdRunsDTO issueIds(IssueIdsCommand command);
+}
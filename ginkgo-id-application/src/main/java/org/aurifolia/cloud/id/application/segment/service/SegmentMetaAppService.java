@@ -13,9 +13,18 @@ import org.aurifolia.cloud.id.application.segment.dto.SegmentMetaDTO;
 public interface SegmentMetaAppService {
     
     /**
-     * 分配号段
+     * 分配号段，单条语句原子分配连续command.count个号段编号
+     * <p>
+     * 返回号段区间和序列号位宽
      */
     SegmentMetaDTO allocateSegment(AllocateSegmentCommand command);
+
+    /**
+     * 查询业务标签的序列号位宽
+     *
+     * @throws org.aurifolia.cloud.common.ddd.DomainException 业务标签未注册
+     */
+    int getSeqBits(String bizTag);
     
     /**
      * 注册业务标签
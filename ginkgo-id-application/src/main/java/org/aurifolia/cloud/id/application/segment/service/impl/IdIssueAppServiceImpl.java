@@ -0,0 +1,42 @@
+package org.aurifolia.cloud.id.application.segment.service.impl;
+
+import org.aurifolia.cloud.common.ddd.DomainException;
+import org.aurifolia.cloud.id.application.segment.command.IssueIdsCommand;
+import org.aurifolia.cloud.id.application.segment.directory.BizTagDirectory;
+import org.aurifolia.cloud.id.application.segment.dto.IdRunsDTO;
+import org.aurifolia.cloud.id.application.segment.issuer.IdBatchIssuer;
+import org.aurifolia.cloud.id.application.segment.service.IdIssueAppService;
+import org.aurifolia.cloud.id.domain.exception.IdDomainErrorCode;
+import org.springframework.stereotype.Service;
+
+/**
+ * ID签发应用服务实现
+ * <p>
+ * 先由业务标签目录拒绝未知标签，避免为拼写错误的标签创建生成器
+ *
+ * @author Peng Dan
+ * @since 2.0
+ */
+@Service
+public class IdIssueAppServiceImpl implements IdIssueAppService {
+
+    private final IdBatchIssuer idBatchIssuer;
+    private final BizTagDirectory bizTagDirectory;
+
+    public IdIssueAppServiceImpl(IdBatchIssuer idBatchIssuer, BizTagDirectory bizTagDirectory) {
+        this.idBatchIssuer = idBatchIssuer;
+        this.bizTagDirectory = bizTagDirectory;
+    }
+
+    @Override
+    public IdRunsDTO issueIds(IssueIdsCommand command) {
+        if (command.getCount() < 1 || command.getCount() > IssueIdsCommand.MAX_COUNT) {
+            throw new DomainException(IdDomainErrorCode.INVALID_ID_COUNT, command.getCount());
+        }
+        if (!bizTagDirectory.exists(command.getBizTag())) {
+            throw new DomainException(IdDomainErrorCode.BIZ_TAG_NOT_FOUND, command.getBizTag());
+        }
+        long[] runs = idBatchIssuer.issueRuns(command.getBizTag(), command.getCount());
+        return new IdRunsDTO(command.getBizTag(), command.getCount(), runs);
+    }
+}
@@ -1,15 +1,19 @@
 package org.aurifolia.cloud.id.application.segment.service.impl;
 
 import lombok.extern.slf4j.Slf4j;
+import org.aurifolia.cloud.id.application.segment.allocator.SegmentRangeAllocator;
 import org.aurifolia.cloud.id.application.segment.command.AllocateSegmentCommand;
 import org.aurifolia.cloud.id.application.segment.command.SegmentMetaRegisterCommand;
-import org.aurifolia.cloud.id.application.segment.converter.SegmentMetaConverter;
+import org.aurifolia.cloud.id.application.segment.directory.BizTagDirectory;
 import org.aurifolia.cloud.id.application.segment.dto.SegmentMetaDTO;
+import org.aurifolia.cloud.id.application.segment.metrics.SegmentAllocationMetrics;
+import org.aurifolia.cloud.id.application.segment.metrics.SegmentAllocationMetrics.Phase;
 import org.aurifolia.cloud.id.application.segment.service.SegmentMetaAppService;
 import org.aurifolia.cloud.common.ddd.DomainException;
 import org.aurifolia.cloud.id.domain.exception.IdDomainErrorCode;
 import org.aurifolia.cloud.id.domain.segment.entity.SegmentMeta;
 import org.aurifolia.cloud.id.domain.segment.repository.SegmentMetaRepository;
+import org.aurifolia.cloud.id.domain.segment.valueobject.SegmentRange;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -24,27 +28,62 @@ import org.springframework.transaction.annotation.Transactional;
 public class SegmentMetaAppServiceImpl implements SegmentMetaAppService {
 
     private final SegmentMetaRepository repository;
+    private final SegmentRangeAllocator segmentRangeAllocator;
+    private final BizTagDirectory bizTagDirectory;
+    private final SegmentAllocationMetrics metrics;
 
-    public SegmentMetaAppServiceImpl(SegmentMetaRepository repository) {
+    public SegmentMetaAppServiceImpl(SegmentMetaRepository repository, SegmentRangeAllocator segmentRangeAllocator,
+                                     BizTagDirectory bizTagDirectory, SegmentAllocationMetrics metrics) {
         this.repository = repository;
+        this.segmentRangeAllocator = segmentRangeAllocator;
+        this.bizTagDirectory = bizTagDirectory;
+        this.metrics = metrics;
     }
 
+    /**
+     * 分配号段，事务由分配器在真正落库时开启，内存预留命中时不访问数据库；未知业务标签由目录直接拒绝
+     */
     @Override
-    @Transactional(rollbackFor = Exception.class)
     public SegmentMetaDTO allocateSegment(AllocateSegmentCommand command) {
-        SegmentMeta meta = repository.findByBizTagForUpdate(command.getBizTag())
-                .orElseThrow(() -> new DomainException(IdDomainErrorCode.BIZ_TAG_NOT_FOUND, command.getBizTag()));
+        long startNanos = System.nanoTime();
+        try {
+            return doAllocateSegment(command);
+        } finally {
+            metrics.recordPhase(command.getBizTag(), Phase.SERVICE, System.nanoTime() - startNanos);
+        }
+    }
 
-        meta.allocateNextSegment();
-        repository.update(meta);
+    private SegmentMetaDTO doAllocateSegment(AllocateSegmentCommand command) {
+        SegmentMeta.checkAllocateCount(command.getCount());
+        int seqBits = getSeqBits(command.getBizTag());
+        // 号段编号上限由仓储在推进max_id时校验，溢出的请求不会消耗号段
+        SegmentRange range = segmentRangeAllocator.allocate(command.getBizTag(), command.getCount());
+        metrics.recordAllocated(range.getBizTag(), range.getCount());
 
-        return SegmentMetaConverter.INSTANCE.toDTO(meta);
+        SegmentMetaDTO dto = new SegmentMetaDTO();
+        dto.setBizTag(range.getBizTag());
+        dto.setMaxId(range.getMaxId());
+        dto.setAllocatedCount(range.getCount());
+        dto.setSeqBits(seqBits);
+        return dto;
+    }
+
+    @Override
+    public int getSeqBits(String bizTag) {
+        Integer seqBits = bizTagDirectory.seqBits(bizTag);
+        if (seqBits == null) {
+            throw new DomainException(IdDomainErrorCode.BIZ_TAG_NOT_FOUND, bizTag);
+        }
+        return seqBits;
     }
 
     @Override
     @Transactional(rollbackFor = Exception.class)
     public void registerBizTag(SegmentMetaRegisterCommand command) {
-        SegmentMeta meta = SegmentMeta.create(command.getBizTag());
+        SegmentMeta meta = command.getSeqBits() != null
+                ? SegmentMeta.create(command.getBizTag(), command.getSeqBits())
+                : SegmentMeta.create(command.getBizTag());
         repository.save(meta);
+        bizTagDirectory.register(meta);
     }
 }
@@ -0,0 +1,40 @@
+package org.aurifolia.cloud.id.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * 基准测试启动入口
+ * <p>
+ * 运行全部（或参数指定的）基准，挂载GC/分配率分析器，并以JSON格式输出结果，
+ * 便于与baseline目录下的基线结果对比。
+ * <p>
+ * 用法: java -cp benchmarks.jar org.aurifolia.cloud.id.benchmark.BenchmarkRunner [结果文件] [基准正则]
+ *
+ * @author Peng Dan
+ * @since 2.0
+ */
+public final class BenchmarkRunner {
+
+    private static final String DEFAULT_RESULT_FILE = "jmh-result.json";
+    private static final String DEFAULT_INCLUDE = "org\\.aurifolia\\.cloud\\.id\\..*Benchmark";
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        String resultFile = args.length > 0 ? args[0] : DEFAULT_RESULT_FILE;
+        String include = args.length > 1 ? args[1] : DEFAULT_INCLUDE;
+        Options options = new OptionsBuilder()
+                .include(include)
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result(resultFile)
+                .build();
+        new Runner(options).run();
+    }
+}
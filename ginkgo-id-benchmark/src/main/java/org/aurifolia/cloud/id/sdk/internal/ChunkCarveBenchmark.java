@@ -0,0 +1,98 @@
+package org.aurifolia.cloud.id.sdk.internal;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SegmentIdGenerator.allocateChunk共享切割路径竞争基准
+ * <p>
+ * 绕过线程本地和分条分配器，所有线程直接从同一活跃槽位切割，测量1到128线程下槽位序列号与缓冲状态所在缓存行的竞争；
+ * chunkSize为1时每次切割只得到一个ID，竞争最激烈，64对应分配器的典型块大小
+ *
+ * @author Peng Dan
+ * @since 2.0
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ChunkCarveBenchmark {
+
+    @Param({"1", "64"})
+    public int chunkSize;
+
+    private SegmentIdGenerator generator;
+
+    @State(Scope.Thread)
+    public static class Carve {
+        final Chunk chunk = new Chunk();
+    }
+
+    @Setup
+    public void setup() {
+        generator = new SegmentIdGenerator(new InMemorySegmentFetcher(), new DegradedIdGenerator(), true);
+    }
+
+    @TearDown
+    public void tearDown() {
+        generator.shutdown();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public long carve001Thread(Carve carve) {
+        return carve(carve.chunk);
+    }
+
+    @Benchmark
+    @Threads(2)
+    public long carve002Threads(Carve carve) {
+        return carve(carve.chunk);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public long carve004Threads(Carve carve) {
+        return carve(carve.chunk);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public long carve008Threads(Carve carve) {
+        return carve(carve.chunk);
+    }
+
+    @Benchmark
+    @Threads(16)
+    public long carve016Threads(Carve carve) {
+        return carve(carve.chunk);
+    }
+
+    @Benchmark
+    @Threads(32)
+    public long carve032Threads(Carve carve) {
+        return carve(carve.chunk);
+    }
+
+    @Benchmark
+    @Threads(64)
+    public long carve064Threads(Carve carve) {
+        return carve(carve.chunk);
+    }
+
+    @Benchmark
+    @Threads(128)
+    public long carve128Threads(Carve carve) {
+        return carve(carve.chunk);
+    }
+
+    private long carve(Chunk chunk) {
+        if (!generator.allocateChunk(chunkSize, chunk)) {
+            return -1;
+        }
+        return chunk.prefix | chunk.seqStart;
+    }
+}
@@ -0,0 +1,59 @@
+package org.aurifolia.cloud.id.sdk.internal;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DegradedIdGenerator.nextId竞争基准
+ * <p>
+ * 降级模式下线程分散到各分配单元，只在单元租约耗尽时竞争共享CAS变量，测量不同线程数下的吞吐
+ *
+ * @author Peng Dan
+ * @since 2.0
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DegradedIdGeneratorBenchmark {
+
+    private DegradedIdGenerator generator;
+
+    @Setup
+    public void setup() {
+        generator = new DegradedIdGenerator();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public long nextId01Thread() {
+        return generator.nextId();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public long nextId04Threads() {
+        return generator.nextId();
+    }
+
+    @Benchmark
+    @Threads(16)
+    public long nextId16Threads() {
+        return generator.nextId();
+    }
+
+    @Benchmark
+    @Threads(32)
+    public long nextId32Threads() {
+        return generator.nextId();
+    }
+
+    @Benchmark
+    @Threads(64)
+    public long nextId64Threads() {
+        return generator.nextId();
+    }
+}
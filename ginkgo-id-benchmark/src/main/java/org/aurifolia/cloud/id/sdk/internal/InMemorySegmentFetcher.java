@@ -0,0 +1,40 @@
+package org.aurifolia.cloud.id.sdk.internal;
+
+import org.aurifolia.cloud.id.sdk.fetcher.SegmentFetcher;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 内存号段获取器
+ * <p>
+ * 基准测试专用，以本地计数器代替ID服务，可选模拟远程调用延迟
+ *
+ * @author Peng Dan
+ * @since 2.0
+ */
+final class InMemorySegmentFetcher implements SegmentFetcher {
+
+    private final AtomicLong maxId = new AtomicLong(0);
+    private final long latencyNanos;
+
+    InMemorySegmentFetcher() {
+        this(0);
+    }
+
+    InMemorySegmentFetcher(long latencyNanos) {
+        this.latencyNanos = latencyNanos;
+    }
+
+    @Override
+    public Long fetchSegment() {
+        if (latencyNanos > 0) {
+            LockSupport.parkNanos(latencyNanos);
+        }
+        return maxId.incrementAndGet();
+    }
+
+    long fetchCount() {
+        return maxId.get();
+    }
+}
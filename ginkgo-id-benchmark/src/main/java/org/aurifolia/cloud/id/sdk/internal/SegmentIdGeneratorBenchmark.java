@@ -0,0 +1,63 @@
+package org.aurifolia.cloud.id.sdk.internal;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SegmentIdGenerator.nextId热路径基准
+ * <p>
+ * 分别在1/4/16/64线程下测量线程本地分配器与分条分配器的吞吐，号段由内存获取器即时补充
+ *
+ * @author Peng Dan
+ * @since 2.0
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SegmentIdGeneratorBenchmark {
+
+    @Param({"THREAD_LOCAL", "STRIPED"})
+    public AllocatorMode allocatorMode;
+
+    private SegmentIdGenerator generator;
+
+    @Setup
+    public void setup() {
+        SegmentIdGeneratorOptions options = new SegmentIdGeneratorOptions();
+        options.setAllocatorMode(allocatorMode);
+        generator = new SegmentIdGenerator(new InMemorySegmentFetcher(), new DegradedIdGenerator(), options);
+    }
+
+    @TearDown
+    public void tearDown() {
+        generator.shutdown();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public long nextId01Thread() {
+        return generator.nextId();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public long nextId04Threads() {
+        return generator.nextId();
+    }
+
+    @Benchmark
+    @Threads(16)
+    public long nextId16Threads() {
+        return generator.nextId();
+    }
+
+    @Benchmark
+    @Threads(64)
+    public long nextId64Threads() {
+        return generator.nextId();
+    }
+}
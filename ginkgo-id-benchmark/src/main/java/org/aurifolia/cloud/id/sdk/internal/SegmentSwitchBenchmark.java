@@ -0,0 +1,55 @@
+package org.aurifolia.cloud.id.sdk.internal;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 号段切换吞吐基准
+ * <p>
+ * 每次调用批量消耗65536个ID，约16次调用耗尽一个号段，
+ * 持续触发SegmentBuffer.trySwitch与triggerPrefetch；
+ * 通过fetchLatencyMicros模拟不同的号段获取延迟
+ *
+ * @author Peng Dan
+ * @since 2.0
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class SegmentSwitchBenchmark {
+
+    private static final int BATCH_SIZE = 65536;
+
+    @Param({"0", "500"})
+    public long fetchLatencyMicros;
+
+    private SegmentIdGenerator generator;
+
+    @State(Scope.Thread)
+    public static class Batch {
+        final long[] ids = new long[BATCH_SIZE];
+    }
+
+    @Setup
+    public void setup() {
+        generator = new SegmentIdGenerator(
+                new InMemorySegmentFetcher(TimeUnit.MICROSECONDS.toNanos(fetchLatencyMicros)),
+                new DegradedIdGenerator(), true);
+    }
+
+    @TearDown
+    public void tearDown() {
+        generator.shutdown();
+    }
+
+    @Benchmark
+    public long[] nextIdsAcrossSwitches(Batch batch) {
+        generator.nextIds(batch.ids, 0, BATCH_SIZE);
+        return batch.ids;
+    }
+}
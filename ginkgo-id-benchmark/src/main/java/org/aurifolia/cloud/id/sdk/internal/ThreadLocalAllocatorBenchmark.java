@@ -0,0 +1,55 @@
+package org.aurifolia.cloud.id.sdk.internal;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ThreadLocalAllocator自适应块大小基准
+ * <p>
+ * 通过每次分配之间消耗不同的CPU工作量模拟不同的分配速率，
+ * 观察块大小自适应对单次分配开销的影响
+ *
+ * @author Peng Dan
+ * @since 2.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ThreadLocalAllocatorBenchmark {
+
+    @Param({"0", "64", "1024"})
+    public long workTokens;
+
+    private SegmentIdGenerator generator;
+
+    @State(Scope.Thread)
+    public static class Allocator {
+        ThreadLocalAllocator allocator;
+
+        @Setup
+        public void setup(ThreadLocalAllocatorBenchmark benchmark) {
+            allocator = new ThreadLocalAllocator(benchmark.generator);
+        }
+    }
+
+    @Setup
+    public void setup() {
+        generator = new SegmentIdGenerator(new InMemorySegmentFetcher(), new DegradedIdGenerator(), true);
+    }
+
+    @TearDown
+    public void tearDown() {
+        generator.shutdown();
+    }
+
+    @Benchmark
+    public long nextId(Allocator state) {
+        Blackhole.consumeCPU(workTokens);
+        return state.allocator.nextId();
+    }
+}
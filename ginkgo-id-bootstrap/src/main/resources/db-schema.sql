@@ -6,6 +6,7 @@ CREATE TABLE IF NOT EXISTS segment_meta (
     id BIGINT AUTO_INCREMENT PRIMARY KEY COMMENT '自增主键ID',
     biz_tag VARCHAR(64) NOT NULL UNIQUE COMMENT '业务标签',
     max_id BIGINT NOT NULL DEFAULT 0 COMMENT '当前已分配的最大号段编号',
+    seq_bits INT NOT NULL DEFAULT 20 COMMENT '序列号位宽，注册后不可修改',
     create_time DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
     update_time DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间'
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='号段元数据表';
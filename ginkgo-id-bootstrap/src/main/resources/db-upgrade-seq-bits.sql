@@ -0,0 +1,6 @@
+-- 2.0之前创建的segment_meta表没有seq_bits列，升级时执行一次
+-- 已有业务标签按原布局保持默认的20位序列号
+USE ginkgo_id;
+
+ALTER TABLE segment_meta
+    ADD COLUMN seq_bits INT NOT NULL DEFAULT 20 COMMENT '序列号位宽，注册后不可修改' AFTER max_id;
@@ -15,7 +15,11 @@ import org.aurifolia.cloud.common.ddd.ErrorCode;
 public enum IdDomainErrorCode implements ErrorCode {
 
     BIZ_TAG_NOT_FOUND(10001, "bizTag未注册: %s"),
-    BIZ_TAG_ALREADY_EXISTS(10002, "bizTag已存在: %s");
+    BIZ_TAG_ALREADY_EXISTS(10002, "bizTag已存在: %s"),
+    INVALID_SEGMENT_COUNT(10003, "号段分配数量非法: %s"),
+    INVALID_SEQ_BITS(10004, "序列号位宽非法: %s"),
+    SEGMENT_EXHAUSTED(10005, "bizTag号段编号已耗尽: %s"),
+    INVALID_ID_COUNT(10006, "ID签发数量非法: %s");
 
     private final int code;
     private final String message;
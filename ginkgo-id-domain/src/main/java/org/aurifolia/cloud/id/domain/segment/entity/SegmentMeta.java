@@ -1,6 +1,8 @@
 package org.aurifolia.cloud.id.domain.segment.entity;
 
 import lombok.Getter;
+import org.aurifolia.cloud.common.ddd.DomainException;
+import org.aurifolia.cloud.id.domain.exception.IdDomainErrorCode;
 
 import java.time.LocalDateTime;
 
@@ -12,21 +14,55 @@ import java.time.LocalDateTime;
  */
 @Getter
 public class SegmentMeta {
+
+    /**
+     * 单次最多分配的号段数
+     */
+    public static final int MAX_ALLOCATE_COUNT = 1024;
+
+    /**
+     * 默认序列号位宽，与未引入该字段前的ID格式一致
+     */
+    public static final int DEFAULT_SEQ_BITS = 20;
+    public static final int MIN_SEQ_BITS = 8;
+    public static final int MAX_SEQ_BITS = 30;
+
+    /**
+     * ID中号段编号与序列号共占的位数（去掉符号位和模式标识位）
+     */
+    public static final int PAYLOAD_BITS = 62;
+
     private Long id;
     private String bizTag;
     private Long maxId;
+    /**
+     * 序列号位宽，每个号段包含2^seqBits个ID；注册后不可变更，否则同一标签新旧布局的ID可能冲突
+     */
+    private Integer seqBits;
     private LocalDateTime createTime;
     private LocalDateTime updateTime;
 
     /**
-     * 创建新的号段元数据
+     * 创建新的号段元数据，使用默认序列号位宽
      *
      * @param bizTag 业务标签
      */
     public static SegmentMeta create(String bizTag) {
+        return create(bizTag, DEFAULT_SEQ_BITS);
+    }
+
+    /**
+     * 创建新的号段元数据
+     *
+     * @param bizTag  业务标签
+     * @param seqBits 序列号位宽，范围MIN_SEQ_BITS~MAX_SEQ_BITS
+     */
+    public static SegmentMeta create(String bizTag, int seqBits) {
+        checkSeqBits(seqBits);
         SegmentMeta meta = new SegmentMeta();
         meta.bizTag = bizTag;
         meta.maxId = 0L;
+        meta.seqBits = seqBits;
         meta.createTime = LocalDateTime.now();
         meta.updateTime = LocalDateTime.now();
         return meta;
@@ -35,23 +71,41 @@ public class SegmentMeta {
     /**
      * 从持久化数据重建号段元数据
      */
-    public static SegmentMeta reconstitute(Long id, String bizTag, Long maxId,
+    public static SegmentMeta reconstitute(Long id, String bizTag, Long maxId, Integer seqBits,
                                            LocalDateTime createTime, LocalDateTime updateTime) {
         SegmentMeta meta = new SegmentMeta();
         meta.id = id;
         meta.bizTag = bizTag;
         meta.maxId = maxId;
+        meta.seqBits = seqBits;
         meta.createTime = createTime;
         meta.updateTime = updateTime;
         return meta;
     }
 
     /**
-     * 分配下一个号段编号（步长固定为1）
+     * 校验单次分配数量，范围1~MAX_ALLOCATE_COUNT
+     */
+    public static void checkAllocateCount(int count) {
+        if (count < 1 || count > MAX_ALLOCATE_COUNT) {
+            throw new DomainException(IdDomainErrorCode.INVALID_SEGMENT_COUNT, count);
+        }
+    }
+
+    /**
+     * 校验序列号位宽，范围MIN_SEQ_BITS~MAX_SEQ_BITS
+     */
+    public static void checkSeqBits(int seqBits) {
+        if (seqBits < MIN_SEQ_BITS || seqBits > MAX_SEQ_BITS) {
+            throw new DomainException(IdDomainErrorCode.INVALID_SEQ_BITS, seqBits);
+        }
+    }
+
+    /**
+     * 指定序列号位宽下可分配的最大号段编号，超过后号段编号在ID中溢出
      */
-    public void allocateNextSegment() {
-        this.maxId++;
-        this.updateTime = LocalDateTime.now();
+    public static long maxSegmentNumber(int seqBits) {
+        return (1L << (PAYLOAD_BITS - seqBits)) - 1;
     }
 
     public void assignId(Long id) {
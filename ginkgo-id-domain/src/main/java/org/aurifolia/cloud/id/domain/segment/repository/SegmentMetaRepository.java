@@ -1,7 +1,9 @@
 package org.aurifolia.cloud.id.domain.segment.repository;
 
 import org.aurifolia.cloud.id.domain.segment.entity.SegmentMeta;
+import org.aurifolia.cloud.id.domain.segment.valueobject.SegmentRange;
 
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -20,22 +22,30 @@ public interface SegmentMetaRepository {
     Optional<SegmentMeta> findByBizTag(String bizTag);
 
     /**
-     * 根据业务标签查询号段元数据（加悲观锁）
+     * 原子分配连续count个号段
      * <p>
-     * 使用 SELECT ... FOR UPDATE 锁定行记录
+     * 单条UPDATE推进max_id并在同一连接上读回结果，行锁只在这一条语句内持有；
+     * 推进后超过{@link SegmentMeta#maxSegmentNumber(int)}时不修改max_id
      *
      * @param bizTag 业务标签
-     * @return SegmentMeta
+     * @param count  分配数量
+     * @return 分配的号段区间，业务标签不存在时返回empty
+     * @throws org.aurifolia.cloud.common.ddd.DomainException 号段编号耗尽（SEGMENT_EXHAUSTED）
      */
-    Optional<SegmentMeta> findByBizTagForUpdate(String bizTag);
+    Optional<SegmentRange> allocate(String bizTag, int count);
 
     /**
-     * 保存号段元数据
+     * 元数据表当前最大主键，表为空时返回0；主键自增，可作为业务标签目录的版本号
      */
-    void save(SegmentMeta meta);
+    long findMaxId();
 
     /**
-     * 更新号段元数据
+     * 查询主键大于id的号段元数据
      */
-    void update(SegmentMeta meta);
+    List<SegmentMeta> findByIdGreaterThan(long id);
+
+    /**
+     * 保存号段元数据
+     */
+    void save(SegmentMeta meta);
 }
@@ -0,0 +1,39 @@
+package org.aurifolia.cloud.id.domain.segment.valueobject;
+
+import lombok.Getter;
+
+/**
+ * 号段区间值对象
+ * <p>
+ * 一次分配得到的连续号段编号[firstSegment, maxId]
+ *
+ * @author Peng Dan
+ * @since 2.0
+ */
+@Getter
+public final class SegmentRange {
+
+    private final String bizTag;
+    private final long maxId;
+    private final int count;
+
+    private SegmentRange(String bizTag, long maxId, int count) {
+        this.bizTag = bizTag;
+        this.maxId = maxId;
+        this.count = count;
+    }
+
+    /**
+     * 由分配后的max_id和分配数量构造区间
+     */
+    public static SegmentRange ofUpperBound(String bizTag, long maxId, int count) {
+        return new SegmentRange(bizTag, maxId, count);
+    }
+
+    /**
+     * 区间内第一个号段编号
+     */
+    public long getFirstSegment() {
+        return maxId - count + 1;
+    }
+}
@@ -0,0 +1,307 @@
+package org.aurifolia.cloud.id.infrastructure.binary;
+
+import lombok.extern.slf4j.Slf4j;
+import org.aurifolia.cloud.common.ddd.DomainException;
+import org.aurifolia.cloud.id.application.segment.command.AllocateSegmentCommand;
+import org.aurifolia.cloud.id.application.segment.dto.SegmentMetaDTO;
+import org.aurifolia.cloud.id.application.segment.metrics.SegmentAllocationMetrics;
+import org.aurifolia.cloud.id.application.segment.service.SegmentMetaAppService;
+import org.aurifolia.cloud.id.domain.exception.IdDomainErrorCode;
+import org.aurifolia.cloud.id.sdk.binary.BinarySegmentProtocol;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * 二进制号段分配服务端
+ * <p>
+ * 单个NIO选择器线程负责接受连接和读写，协议见{@link BinarySegmentProtocol}。
+ * 一次读取中的多个完整请求帧逐个解析并交给分配线程执行（分配可能阻塞在数据库上），
+ * 分配完成后响应进入连接的发送队列，由选择器线程写出；同一连接上的请求互不等待，响应按完成顺序返回。
+ * <p>
+ * 每个连接已接收但响应尚未写出的请求不超过maxInFlightPerConnection，达到上限时停止解析并取消关注OP_READ，
+ * 积压由TCP窗口反压给客户端，响应写出后恢复读取；发送队列的长度因此也不超过该上限。
+ * 分配在最多maxConcurrentAllocations个虚拟线程上执行，超出的请求排队，队列长度受连接数和单连接上限约束。
+ *
+ * @author Peng Dan
+ * @since 2.0
+ */
+@Slf4j
+public class BinarySegmentServer {
+
+    private static final String TRANSPORT = "binary";
+    private static final int READ_BUFFER_SIZE = 16 * 1024;
+
+    private final SegmentMetaAppService segmentMetaAppService;
+    private final SegmentAllocationMetrics metrics;
+    private final int port;
+    private final int maxInFlightPerConnection;
+    private final int maxConcurrentAllocations;
+    private final Queue<Connection> writable = new ConcurrentLinkedQueue<>();
+    private ExecutorService allocators;
+    private Selector selector;
+    private ServerSocketChannel serverChannel;
+    private Thread selectorThread;
+    private volatile boolean running;
+
+    /**
+     * @param port                     监听端口，0表示随机端口
+     * @param maxInFlightPerConnection 单个连接上已接收但响应尚未写出的请求上限
+     * @param maxConcurrentAllocations 同时执行的号段分配上限
+     */
+    public BinarySegmentServer(SegmentMetaAppService segmentMetaAppService, SegmentAllocationMetrics metrics,
+                               int port, int maxInFlightPerConnection, int maxConcurrentAllocations) {
+        this.segmentMetaAppService = segmentMetaAppService;
+        this.metrics = metrics;
+        this.port = port;
+        this.maxInFlightPerConnection = Math.max(1, maxInFlightPerConnection);
+        this.maxConcurrentAllocations = Math.max(1, maxConcurrentAllocations);
+    }
+
+    public synchronized void start() throws IOException {
+        if (running) {
+            return;
+        }
+        selector = Selector.open();
+        serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(new InetSocketAddress(port));
+        serverChannel.configureBlocking(false);
+        serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+        allocators = Executors.newFixedThreadPool(maxConcurrentAllocations,
+                Thread.ofVirtual().name("ginkgo-id-binary-allocator-", 0).factory());
+        running = true;
+        selectorThread = new Thread(this::loop, "ginkgo-id-binary-server");
+        selectorThread.start();
+        log.info("Binary segment server listening on port {}", getPort());
+    }
+
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        selector.wakeup();
+        try {
+            selectorThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        allocators.shutdownNow();
+        for (SelectionKey key : selector.keys()) {
+            closeQuietly(key);
+        }
+        try {
+            selector.close();
+        } catch (IOException e) {
+            log.warn("Failed to close binary server selector", e);
+        }
+    }
+
+    /**
+     * 实际监听的端口
+     */
+    public int getPort() {
+        try {
+            return ((InetSocketAddress) serverChannel.getLocalAddress()).getPort();
+        } catch (IOException e) {
+            return port;
+        }
+    }
+
+    private void loop() {
+        while (running) {
+            try {
+                selector.select();
+                flushWritable();
+                var keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    handle(key);
+                }
+            } catch (ClosedSelectorException e) {
+                return;
+            } catch (IOException e) {
+                log.error("Binary segment server select failed", e);
+            }
+        }
+    }
+
+    private void handle(SelectionKey key) {
+        try {
+            if (!key.isValid()) {
+                return;
+            }
+            if (key.isAcceptable()) {
+                accept();
+            } else {
+                Connection connection = (Connection) key.attachment();
+                if (key.isReadable()) {
+                    read(connection);
+                }
+                if (key.isValid() && key.isWritable()) {
+                    write(connection);
+                }
+                if (key.isValid()) {
+                    updateInterest(connection);
+                }
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            log.debug("Closing binary connection: {}", e.getMessage());
+            closeQuietly(key);
+        }
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel = serverChannel.accept();
+        if (channel == null) {
+            return;
+        }
+        channel.configureBlocking(false);
+        channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+        Connection connection = new Connection(channel);
+        connection.key = channel.register(selector, SelectionKey.OP_READ, connection);
+    }
+
+    private void read(Connection connection) throws IOException {
+        if (connection.channel.read(connection.in) < 0) {
+            throw new IOException("closed by peer");
+        }
+        dispatch(connection);
+    }
+
+    /**
+     * 解析缓冲区中的完整请求帧并提交分配，达到单连接在途上限时停止，剩余字节留在缓冲区，暂停读取
+     */
+    private void dispatch(Connection connection) {
+        ByteBuffer in = connection.in;
+        in.flip();
+        BinarySegmentProtocol.Request request;
+        while (connection.inFlight < maxInFlightPerConnection
+                && (request = BinarySegmentProtocol.decodeRequest(in)) != null) {
+            BinarySegmentProtocol.Request r = request;
+            connection.inFlight++;
+            allocators.execute(() -> allocate(connection, r));
+        }
+        in.compact();
+        connection.readPaused = connection.inFlight >= maxInFlightPerConnection;
+    }
+
+    private void allocate(Connection connection, BinarySegmentProtocol.Request request) {
+        ByteBuffer response = ByteBuffer.allocate(BinarySegmentProtocol.RESPONSE_SIZE);
+        long startNanos = System.nanoTime();
+        try {
+            SegmentMetaDTO dto = segmentMetaAppService.allocateSegment(
+                    new AllocateSegmentCommand(request.bizTag(), request.count()));
+            BinarySegmentProtocol.encodeResponse(response, request.requestId(), BinarySegmentProtocol.STATUS_OK,
+                    dto.getSeqBits(), dto.getAllocatedCount(), dto.getMaxId());
+        } catch (Exception e) {
+            byte status = toStatus(e);
+            if (status == BinarySegmentProtocol.STATUS_ERROR) {
+                log.error("Binary segment allocation failed: bizTag={}", request.bizTag(), e);
+            }
+            BinarySegmentProtocol.encodeResponse(response, request.requestId(), status, 0, 0, 0L);
+        } finally {
+            metrics.recordHandler(request.bizTag(), TRANSPORT, System.nanoTime() - startNanos);
+        }
+        connection.out.offer(response.flip());
+        writable.offer(connection);
+        selector.wakeup();
+    }
+
+    private void flushWritable() {
+        Connection connection;
+        while ((connection = writable.poll()) != null) {
+            if (!connection.key.isValid()) {
+                continue;
+            }
+            try {
+                write(connection);
+                updateInterest(connection);
+            } catch (IOException | IllegalArgumentException e) {
+                closeQuietly(connection.key);
+            }
+        }
+    }
+
+    /**
+     * 尽量写出发送队列；写出的响应释放在途名额，读取已暂停且低于上限时先处理缓冲区中积压的请求帧
+     */
+    private void write(Connection connection) throws IOException {
+        ByteBuffer buffer;
+        connection.writeBlocked = false;
+        while ((buffer = connection.out.peek()) != null) {
+            connection.channel.write(buffer);
+            if (buffer.hasRemaining()) {
+                connection.writeBlocked = true;
+                break;
+            }
+            connection.out.poll();
+            connection.inFlight--;
+        }
+        if (connection.readPaused && connection.inFlight < maxInFlightPerConnection) {
+            dispatch(connection);
+        }
+    }
+
+    /**
+     * 未暂停读取时关注OP_READ，发送队列没写完时关注OP_WRITE
+     */
+    private static void updateInterest(Connection connection) {
+        int ops = (connection.readPaused ? 0 : SelectionKey.OP_READ)
+                | (connection.writeBlocked ? SelectionKey.OP_WRITE : 0);
+        if (connection.key.interestOps() != ops) {
+            connection.key.interestOps(ops);
+        }
+    }
+
+    private static byte toStatus(Exception e) {
+        if (e instanceof DomainException de) {
+            if (de.getErrorCode() == IdDomainErrorCode.BIZ_TAG_NOT_FOUND) {
+                return BinarySegmentProtocol.STATUS_NOT_FOUND;
+            }
+            if (de.getErrorCode() == IdDomainErrorCode.INVALID_SEGMENT_COUNT) {
+                return BinarySegmentProtocol.STATUS_BAD_REQUEST;
+            }
+        }
+        return BinarySegmentProtocol.STATUS_ERROR;
+    }
+
+    private static void closeQuietly(SelectionKey key) {
+        key.cancel();
+        try {
+            key.channel().close();
+        } catch (IOException ignored) {
+            // 关闭失败无需处理
+        }
+    }
+
+    private static final class Connection {
+
+        final SocketChannel channel;
+        final ByteBuffer in = ByteBuffer.allocate(READ_BUFFER_SIZE);
+        final Queue<ByteBuffer> out = new ConcurrentLinkedQueue<>();
+        SelectionKey key;
+        /**
+         * 已提交分配但响应尚未写出的请求数，只在选择器线程上读写
+         */
+        int inFlight;
+        boolean readPaused;
+        boolean writeBlocked;
+
+        Connection(SocketChannel channel) {
+            this.channel = channel;
+        }
+    }
+}
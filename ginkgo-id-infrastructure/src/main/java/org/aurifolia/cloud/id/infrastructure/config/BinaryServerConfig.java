@@ -0,0 +1,29 @@
+package org.aurifolia.cloud.id.infrastructure.config;
+
+import org.aurifolia.cloud.id.application.segment.metrics.SegmentAllocationMetrics;
+import org.aurifolia.cloud.id.application.segment.service.SegmentMetaAppService;
+import org.aurifolia.cloud.id.infrastructure.binary.BinarySegmentServer;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 二进制号段分配端点配置，ginkgo.id.server.binary.enabled=true时在独立端口上启动
+ *
+ * @author Peng Dan
+ * @since 2.0
+ */
+@Configuration
+@EnableConfigurationProperties(BinaryServerProperties.class)
+@ConditionalOnProperty(name = "ginkgo.id.server.binary.enabled", havingValue = "true", matchIfMissing = false)
+public class BinaryServerConfig {
+
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    public BinarySegmentServer binarySegmentServer(SegmentMetaAppService segmentMetaAppService,
+                                                   SegmentAllocationMetrics metrics,
+                                                   BinaryServerProperties properties) {
+        return new BinarySegmentServer(segmentMetaAppService, metrics, properties.getPort(),
+                properties.getMaxInFlightPerConnection(), properties.getMaxConcurrentAllocations());
+    }
+}
@@ -0,0 +1,35 @@
+package org.aurifolia.cloud.id.infrastructure.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 二进制号段分配端点配置
+ *
+ * @author Peng Dan
+ * @since 2.0
+ */
+@Data
+@ConfigurationProperties(prefix = "ginkgo.id.server.binary")
+public class BinaryServerProperties {
+
+    /**
+     * 是否启用，默认false
+     */
+    private Boolean enabled = false;
+
+    /**
+     * 监听端口，默认60103
+     */
+    private Integer port = 60103;
+
+    /**
+     * 单个连接上已接收但响应尚未写出的请求上限，达到后暂停读取该连接，默认256
+     */
+    private Integer maxInFlightPerConnection = 256;
+
+    /**
+     * 同时执行的号段分配上限，超出的请求排队等待，默认64
+     */
+    private Integer maxConcurrentAllocations = 64;
+}
@@ -0,0 +1,27 @@
+package org.aurifolia.cloud.id.infrastructure.config;
+
+import org.aurifolia.cloud.id.infrastructure.segment.embedded.EmbeddedSegmentMetaRepository;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+import java.nio.file.Path;
+
+/**
+ * 嵌入式号段存储配置，启用embedded profile时替代MySQL
+ *
+ * @author Peng Dan
+ * @since 2.0
+ */
+@Configuration
+@Profile("embedded")
+@EnableConfigurationProperties(EmbeddedStoreProperties.class)
+public class EmbeddedStoreConfig {
+
+    @Bean(destroyMethod = "close")
+    public EmbeddedSegmentMetaRepository embeddedSegmentMetaRepository(EmbeddedStoreProperties properties) {
+        return new EmbeddedSegmentMetaRepository(Path.of(properties.getDirectory()), properties.getLeaseAhead(),
+                properties.getCompactThresholdBytes(), properties.getCompactIntervalMillis());
+    }
+}
@@ -0,0 +1,35 @@
+package org.aurifolia.cloud.id.infrastructure.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 嵌入式号段存储配置（embedded profile）
+ *
+ * @author Peng Dan
+ * @since 2.0
+ */
+@Data
+@ConfigurationProperties(prefix = "ginkgo.id.server.embedded")
+public class EmbeddedStoreProperties {
+
+    /**
+     * 日志目录，默认./data
+     */
+    private String directory = "./data";
+
+    /**
+     * 每次推进上限时预留的号段数，崩溃重启后最多跳过这么多号段，默认1000
+     */
+    private Long leaseAhead = 1000L;
+
+    /**
+     * 日志超过该大小（字节）时压缩，默认16MB
+     */
+    private Long compactThresholdBytes = 16L * 1024 * 1024;
+
+    /**
+     * 检查是否需要压缩的间隔（毫秒），默认60000
+     */
+    private Long compactIntervalMillis = 60_000L;
+}
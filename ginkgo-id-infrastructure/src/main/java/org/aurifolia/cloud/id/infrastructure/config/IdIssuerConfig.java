@@ -0,0 +1,24 @@
+package org.aurifolia.cloud.id.infrastructure.config;
+
+import org.aurifolia.cloud.id.application.segment.service.SegmentMetaAppService;
+import org.aurifolia.cloud.id.infrastructure.issuer.SegmentIdBatchIssuer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 批量ID签发配置
+ *
+ * @author Peng Dan
+ * @since 2.0
+ */
+@Configuration
+@EnableConfigurationProperties(IdIssuerProperties.class)
+public class IdIssuerConfig {
+
+    @Bean(destroyMethod = "shutdown")
+    public SegmentIdBatchIssuer segmentIdBatchIssuer(SegmentMetaAppService segmentMetaAppService,
+                                                     IdIssuerProperties properties) {
+        return new SegmentIdBatchIssuer(segmentMetaAppService, properties.getRefillWaitTimeoutMillis());
+    }
+}
@@ -0,0 +1,20 @@
+package org.aurifolia.cloud.id.infrastructure.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 批量ID签发配置
+ *
+ * @author Peng Dan
+ * @since 2.0
+ */
+@Data
+@ConfigurationProperties(prefix = "ginkgo.id.server.issuer")
+public class IdIssuerProperties {
+
+    /**
+     * 活跃号段耗尽后等待补充的最长时间（毫秒），超时后本次签发失败，默认1000
+     */
+    private Long refillWaitTimeoutMillis = 1000L;
+}
@@ -0,0 +1,49 @@
+package org.aurifolia.cloud.id.infrastructure.issuer;
+
+import lombok.extern.slf4j.Slf4j;
+import org.aurifolia.cloud.id.application.segment.command.AllocateSegmentCommand;
+import org.aurifolia.cloud.id.application.segment.dto.SegmentMetaDTO;
+import org.aurifolia.cloud.id.application.segment.service.SegmentMetaAppService;
+import org.aurifolia.cloud.id.sdk.fetcher.AbstractSegmentFetcher;
+import org.aurifolia.cloud.id.sdk.fetcher.SegmentRanges;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 进程内号段获取器，直接调用号段分配应用服务，不经过网络
+ *
+ * @author Peng Dan
+ * @since 2.0
+ */
+@Slf4j
+class LocalSegmentFetcher extends AbstractSegmentFetcher {
+
+    private final SegmentMetaAppService segmentMetaAppService;
+    private final String bizTag;
+
+    LocalSegmentFetcher(SegmentMetaAppService segmentMetaAppService, String bizTag) {
+        this.segmentMetaAppService = segmentMetaAppService;
+        this.bizTag = bizTag;
+    }
+
+    @Override
+    public Long fetchSegment() {
+        long[] segments = fetchSegmentsAsync(1).join();
+        return segments.length > 0 ? segments[0] : null;
+    }
+
+    /**
+     * 在生成器的获取线程上同步分配，内存预留命中时不访问数据库
+     */
+    @Override
+    public CompletableFuture<long[]> fetchSegmentsAsync(int count) {
+        try {
+            SegmentMetaDTO dto = segmentMetaAppService.allocateSegment(new AllocateSegmentCommand(bizTag, count));
+            updateSeqBits(dto.getSeqBits());
+            return CompletableFuture.completedFuture(SegmentRanges.expand(dto.getMaxId(), dto.getAllocatedCount()));
+        } catch (Exception e) {
+            log.warn("Local segment fetch failed: bizTag={}", bizTag, e);
+            return CompletableFuture.completedFuture(SegmentRanges.expand(null, count));
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package org.aurifolia.cloud.id.infrastructure.issuer;
+
+import org.aurifolia.cloud.id.application.segment.issuer.IdBatchIssuer;
+import org.aurifolia.cloud.id.application.segment.service.SegmentMetaAppService;
+import org.aurifolia.cloud.id.common.exception.IdGenerationException;
+import org.aurifolia.cloud.id.sdk.internal.SegmentIdGeneratorOptions;
+import org.aurifolia.cloud.id.sdk.internal.SegmentIdGeneratorRegistry;
+
+/**
+ * 基于SDK号段生成器的批量ID签发器
+ * <p>
+ * 每个业务标签一个进程内SegmentIdGenerator，沿用SDK的双缓冲预取和整段切割，签发只是内存中的CAS切割，
+ * 返回的区间直接来自切割结果。服务端不启用降级：号段获取失败时拒绝签发，而不是以服务端的机器号签发降级ID。
+ *
+ * @author Peng Dan
+ * @since 2.0
+ */
+public class SegmentIdBatchIssuer implements IdBatchIssuer {
+
+    private final SegmentIdGeneratorRegistry registry;
+
+    /**
+     * @param refillWaitTimeoutMillis 活跃号段耗尽后等待补充的最长时间（毫秒）
+     */
+    public SegmentIdBatchIssuer(SegmentMetaAppService segmentMetaAppService, long refillWaitTimeoutMillis) {
+        SegmentIdGeneratorOptions options = new SegmentIdGeneratorOptions();
+        options.setDegradeEnabled(false);
+        options.setRefillWaitTimeoutMillis(refillWaitTimeoutMillis);
+        this.registry = new SegmentIdGeneratorRegistry(
+                bizTag -> new LocalSegmentFetcher(segmentMetaAppService, bizTag), options);
+    }
+
+    @Override
+    public long[] issueRuns(String bizTag, int count) {
+        try {
+            return registry.forTag(bizTag).nextIdRuns(count);
+        } catch (IllegalStateException e) {
+            throw new IdGenerationException("Failed to issue ids for bizTag " + bizTag, e);
+        }
+    }
+
+    public void shutdown() {
+        registry.shutdown();
+    }
+}
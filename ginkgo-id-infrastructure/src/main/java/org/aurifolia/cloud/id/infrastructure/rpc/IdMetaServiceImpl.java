@@ -1,16 +1,28 @@
 package org.aurifolia.cloud.id.infrastructure.rpc;
 
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.dubbo.common.stream.StreamObserver;
 import org.apache.dubbo.config.annotation.DubboService;
 import org.aurifolia.cloud.id.application.segment.command.AllocateSegmentCommand;
+import org.aurifolia.cloud.id.application.segment.command.IssueIdsCommand;
+import org.aurifolia.cloud.id.application.segment.dto.SegmentMetaDTO;
+import org.aurifolia.cloud.id.application.segment.metrics.SegmentAllocationMetrics;
+import org.aurifolia.cloud.id.application.segment.service.IdIssueAppService;
 import org.aurifolia.cloud.id.application.segment.service.SegmentMetaAppService;
 import org.aurifolia.cloud.id.sdk.rpc.IdMetaService;
+import org.aurifolia.cloud.id.sdk.rpc.dto.SegmentAllocation;
+import org.aurifolia.cloud.id.sdk.rpc.dto.SegmentDemand;
+import org.aurifolia.cloud.id.sdk.rpc.dto.SegmentPush;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * Dubbo RPC服务提供者实现
  * <p>
- * 将应用层服务暴露为Dubbo RPC接口
+ * 将应用层服务暴露为Dubbo RPC接口；号段订阅流的分配和推送在虚拟线程上执行
  *
  * @author Peng Dan
  * @since 2.0
@@ -20,11 +32,50 @@ import org.aurifolia.cloud.id.sdk.rpc.IdMetaService;
 @RequiredArgsConstructor
 public class IdMetaServiceImpl implements IdMetaService {
 
+    private static final String TRANSPORT = "dubbo";
+    private static final String ID_TRANSPORT = "dubbo-ids";
+
     private final SegmentMetaAppService segmentMetaAppService;
+    private final IdIssueAppService idIssueAppService;
+    private final SegmentAllocationMetrics metrics;
+    private final ExecutorService pushExecutor = Executors.newVirtualThreadPerTaskExecutor();
 
     @Override
     public Long nextSegment(String bizTag) {
-        AllocateSegmentCommand command = new AllocateSegmentCommand(bizTag);
-        return segmentMetaAppService.allocateSegment(command).getMaxId();
+        return allocateSegments(bizTag, 1).getMaxId();
+    }
+
+    @Override
+    public SegmentAllocation allocateSegments(String bizTag, int count) {
+        long startNanos = System.nanoTime();
+        try {
+            SegmentMetaDTO dto = segmentMetaAppService.allocateSegment(new AllocateSegmentCommand(bizTag, count));
+            return new SegmentAllocation(dto.getMaxId(), dto.getAllocatedCount(), dto.getSeqBits());
+        } finally {
+            metrics.recordHandler(bizTag, TRANSPORT, System.nanoTime() - startNanos);
+        }
+    }
+
+    @Override
+    public long[] nextIdRuns(String bizTag, int count) {
+        long startNanos = System.nanoTime();
+        try {
+            return idIssueAppService.issueIds(new IssueIdsCommand(bizTag, count)).getRuns();
+        } finally {
+            metrics.recordHandler(bizTag, ID_TRANSPORT, System.nanoTime() - startNanos);
+        }
+    }
+
+    @Override
+    public StreamObserver<SegmentDemand> subscribeSegments(StreamObserver<SegmentPush> pushes) {
+        return new SegmentSubscription(segmentMetaAppService, metrics, pushes, pushExecutor);
+    }
+
+    /**
+     * 容器关闭时停止推送线程，进行中的分配被中断，已分配未推送的号段随之丢弃
+     */
+    @PreDestroy
+    public void shutdown() {
+        pushExecutor.shutdownNow();
     }
 }
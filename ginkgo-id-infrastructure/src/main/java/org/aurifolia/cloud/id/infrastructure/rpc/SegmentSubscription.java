@@ -0,0 +1,156 @@
+package org.aurifolia.cloud.id.infrastructure.rpc;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.dubbo.common.stream.StreamObserver;
+import org.aurifolia.cloud.id.application.segment.command.AllocateSegmentCommand;
+import org.aurifolia.cloud.id.application.segment.dto.SegmentMetaDTO;
+import org.aurifolia.cloud.id.application.segment.metrics.SegmentAllocationMetrics;
+import org.aurifolia.cloud.id.application.segment.service.SegmentMetaAppService;
+import org.aurifolia.cloud.id.domain.segment.entity.SegmentMeta;
+import org.aurifolia.cloud.id.sdk.rpc.dto.SegmentDemand;
+import org.aurifolia.cloud.id.sdk.rpc.dto.SegmentPush;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+
+/**
+ * 一条号段订阅流的服务端状态
+ * <p>
+ * 按业务标签累计客户端给出的额度，有额度时在executor上分配号段并推送，每次推送消耗同样多的额度；
+ * 额度用完即停止，客户端不会收到超出额度的号段。每个业务标签同时最多一个推送任务在运行。
+ * 分配失败时推送一条失败消息并清零该业务标签的额度。流关闭后已分配未推送的号段被跳过。
+ *
+ * @author Peng Dan
+ * @since 2.0
+ */
+@Slf4j
+final class SegmentSubscription implements StreamObserver<SegmentDemand> {
+
+    /**
+     * 单个业务标签累计额度的上限，防止客户端占用过多号段
+     */
+    static final int MAX_CREDITS = SegmentMeta.MAX_ALLOCATE_COUNT;
+
+    private static final String TRANSPORT = "dubbo-stream";
+
+    private final SegmentMetaAppService segmentMetaAppService;
+    private final SegmentAllocationMetrics metrics;
+    private final StreamObserver<SegmentPush> pushes;
+    private final Executor executor;
+    private final Map<String, TagDemand> demands = new ConcurrentHashMap<>();
+    private volatile boolean closed;
+
+    SegmentSubscription(SegmentMetaAppService segmentMetaAppService, SegmentAllocationMetrics metrics,
+                        StreamObserver<SegmentPush> pushes, Executor executor) {
+        this.segmentMetaAppService = segmentMetaAppService;
+        this.metrics = metrics;
+        this.pushes = pushes;
+        this.executor = executor;
+    }
+
+    @Override
+    public void onNext(SegmentDemand demand) {
+        if (closed || demand.getBizTag() == null || demand.getCredits() == null || demand.getCredits() <= 0) {
+            return;
+        }
+        log.debug("Segment demand: bizTag={}, credits={}", demand.getBizTag(), demand.getCredits());
+        TagDemand tag = demands.computeIfAbsent(demand.getBizTag(), TagDemand::new);
+        if (tag.grant(demand.getCredits())) {
+            executor.execute(() -> drain(tag));
+        }
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        closed = true;
+        log.debug("Segment subscription closed by client: {}", throwable.getMessage());
+    }
+
+    @Override
+    public void onCompleted() {
+        closed = true;
+        synchronized (pushes) {
+            pushes.onCompleted();
+        }
+    }
+
+    /**
+     * 在额度内持续分配并推送，直到额度用完或流关闭
+     */
+    private void drain(TagDemand tag) {
+        int count;
+        while (!closed && (count = tag.take()) > 0) {
+            long startNanos = System.nanoTime();
+            SegmentPush push;
+            try {
+                SegmentMetaDTO dto = segmentMetaAppService.allocateSegment(
+                        new AllocateSegmentCommand(tag.bizTag, count));
+                push = new SegmentPush(tag.bizTag, dto.getMaxId(), dto.getAllocatedCount(), dto.getSeqBits());
+            } catch (Exception e) {
+                log.warn("Segment push allocation failed: bizTag={}", tag.bizTag, e);
+                tag.reset();
+                push = new SegmentPush(tag.bizTag, null, 0, null);
+            } finally {
+                metrics.recordHandler(tag.bizTag, TRANSPORT, System.nanoTime() - startNanos);
+            }
+            try {
+                synchronized (pushes) {
+                    pushes.onNext(push);
+                }
+            } catch (Exception e) {
+                closed = true;
+                log.debug("Segment push failed, closing subscription: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 单个业务标签的额度
+     */
+    private static final class TagDemand {
+
+        final String bizTag;
+        int credits;
+        boolean draining;
+
+        TagDemand(String bizTag) {
+            this.bizTag = bizTag;
+        }
+
+        /**
+         * 增加额度，累计值饱和在MAX_CREDITS
+         *
+         * @param amount 客户端给出的额度，不大于0时忽略
+         * @return 需要启动推送任务时返回true
+         */
+        synchronized boolean grant(int amount) {
+            if (amount <= 0) {
+                return false;
+            }
+            credits = (int) Math.min((long) credits + amount, MAX_CREDITS);
+            if (draining) {
+                return false;
+            }
+            draining = true;
+            return true;
+        }
+
+        /**
+         * 取出全部剩余额度作为一次推送的数量，没有额度时结束推送任务
+         */
+        synchronized int take() {
+            int count = credits;
+            credits = 0;
+            if (count <= 0) {
+                draining = false;
+                return 0;
+            }
+            return count;
+        }
+
+        synchronized void reset() {
+            credits = 0;
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package org.aurifolia.cloud.id.infrastructure.segment.embedded;
+
+import lombok.extern.slf4j.Slf4j;
+import org.aurifolia.cloud.common.ddd.DomainException;
+import org.aurifolia.cloud.id.domain.exception.IdDomainErrorCode;
+import org.aurifolia.cloud.id.domain.segment.entity.SegmentMeta;
+import org.aurifolia.cloud.id.domain.segment.repository.SegmentMetaRepository;
+import org.aurifolia.cloud.id.domain.segment.valueobject.SegmentRange;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 基于本地追加日志的号段元数据仓储，用于无MySQL的单节点部署
+ * <p>
+ * 号段分配完全在内存中进行，日志只记录每个标签的上限（ceiling）：
+ * 分配超过上限时把上限推进到maxId + leaseAhead并等待落盘后再返回，
+ * 因此大部分分配不产生IO，崩溃重启后从落盘的上限继续分配，必然大于已发出的任何号段，
+ * 代价是最多跳过leaseAhead个号段。
+ *
+ * @author Peng Dan
+ * @since 2.0
+ */
+@Slf4j
+public class EmbeddedSegmentMetaRepository implements SegmentMetaRepository {
+
+    private final SegmentMetaJournal journal;
+    private final long leaseAhead;
+    private final long compactThresholdBytes;
+    private final ConcurrentMap<String, TagState> tags = new ConcurrentHashMap<>();
+    private final Object registerLock = new Object();
+    private final ScheduledExecutorService compactor;
+    private volatile long lastId;
+
+    /**
+     * @param directory             日志目录
+     * @param leaseAhead            每次推进上限时预留的号段数
+     * @param compactThresholdBytes 日志超过该大小时压缩
+     * @param compactIntervalMillis 检查是否需要压缩的间隔（毫秒）
+     */
+    public EmbeddedSegmentMetaRepository(Path directory, long leaseAhead,
+                                         long compactThresholdBytes, long compactIntervalMillis) {
+        this.leaseAhead = leaseAhead;
+        this.compactThresholdBytes = compactThresholdBytes;
+        try {
+            this.journal = SegmentMetaJournal.open(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        long maxTagId = 0;
+        for (SegmentMetaJournal.Entry entry : journal.entries()) {
+            tags.put(entry.bizTag(), new TagState(entry));
+            maxTagId = Math.max(maxTagId, entry.id());
+        }
+        this.lastId = maxTagId;
+        log.info("Embedded segment store recovered: directory={}, tags={}", directory, tags.size());
+        this.compactor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "segment-journal-compactor");
+            t.setDaemon(true);
+            return t;
+        });
+        compactor.scheduleWithFixedDelay(this::compactIfNeeded,
+                compactIntervalMillis, compactIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public Optional<SegmentMeta> findByBizTag(String bizTag) {
+        return Optional.ofNullable(tags.get(bizTag)).map(TagState::toEntity);
+    }
+
+    @Override
+    public Optional<SegmentRange> allocate(String bizTag, int count) {
+        TagState state = tags.get(bizTag);
+        if (state == null) {
+            return Optional.empty();
+        }
+        long maxId = advance(state, count);
+        return Optional.of(SegmentRange.ofUpperBound(bizTag, maxId, count));
+    }
+
+    @Override
+    public long findMaxId() {
+        return lastId;
+    }
+
+    @Override
+    public List<SegmentMeta> findByIdGreaterThan(long id) {
+        return tags.values().stream()
+                .filter(state -> state.id > id)
+                .map(TagState::toEntity)
+                .toList();
+    }
+
+    @Override
+    public void save(SegmentMeta meta) {
+        synchronized (registerLock) {
+            if (tags.containsKey(meta.getBizTag())) {
+                throw new DomainException(IdDomainErrorCode.BIZ_TAG_ALREADY_EXISTS, meta.getBizTag());
+            }
+            long id = lastId + 1;
+            SegmentMetaJournal.Entry entry = new SegmentMetaJournal.Entry(id, meta.getBizTag(), meta.getMaxId(),
+                    meta.getSeqBits(), toMillis(meta.getCreateTime()),
+                    toMillis(meta.getUpdateTime()));
+            appendDurably(entry);
+            tags.put(meta.getBizTag(), new TagState(entry));
+            lastId = id;
+            meta.assignId(id);
+        }
+    }
+
+    /**
+     * 推进maxId，超过上限时在持有标签锁的情况下落盘新上限，保证返回前上限已持久化；
+     * 推进后号段编号会在ID中溢出时不做任何修改，直接拒绝
+     */
+    private long advance(TagState state, long count) {
+        synchronized (state) {
+            long maxId = state.maxId + count;
+            if (maxId > SegmentMeta.maxSegmentNumber(state.seqBits)) {
+                throw new DomainException(IdDomainErrorCode.SEGMENT_EXHAUSTED, state.bizTag);
+            }
+            if (maxId > state.ceiling) {
+                long ceiling = maxId + leaseAhead;
+                long now = System.currentTimeMillis();
+                appendDurably(new SegmentMetaJournal.Entry(state.id, state.bizTag, ceiling, state.seqBits,
+                        state.createTime, now));
+                state.ceiling = ceiling;
+                state.updateTime = now;
+            }
+            state.maxId = maxId;
+            return maxId;
+        }
+    }
+
+    private void appendDurably(SegmentMetaJournal.Entry entry) {
+        try {
+            journal.awaitDurable(journal.append(entry));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to persist segment journal: " + entry.bizTag(), e);
+        }
+    }
+
+    private void compactIfNeeded() {
+        try {
+            if (journal.size() > compactThresholdBytes) {
+                journal.compact();
+            }
+        } catch (Exception e) {
+            log.warn("Segment journal compaction exception", e);
+        }
+    }
+
+    /**
+     * 停止压缩并关闭日志
+     */
+    public void close() {
+        compactor.shutdown();
+        try {
+            journal.close();
+        } catch (IOException e) {
+            log.warn("Failed to close segment journal", e);
+        }
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static LocalDateTime toLocalDateTime(long millis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault());
+    }
+
+    /**
+     * 单个标签的内存状态，maxId和ceiling由实例锁保护；
+     * 恢复时maxId取落盘的上限，从上限之后继续分配
+     */
+    private static final class TagState {
+        final long id;
+        final String bizTag;
+        final int seqBits;
+        final long createTime;
+        long maxId;
+        long ceiling;
+        volatile long updateTime;
+
+        TagState(SegmentMetaJournal.Entry entry) {
+            this.id = entry.id();
+            this.bizTag = entry.bizTag();
+            this.seqBits = entry.seqBits();
+            this.createTime = entry.createTime();
+            this.maxId = entry.maxId();
+            this.ceiling = entry.maxId();
+            this.updateTime = entry.updateTime();
+        }
+
+        synchronized SegmentMeta toEntity() {
+            return SegmentMeta.reconstitute(id, bizTag, maxId, seqBits,
+                    toLocalDateTime(createTime), toLocalDateTime(updateTime));
+        }
+    }
+}
@@ -0,0 +1,299 @@
+package org.aurifolia.cloud.id.infrastructure.segment.embedded;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * 号段元数据追加日志
+ * <p>
+ * 每条记录是一个业务标签的完整状态，同一标签以最后一条为准：
+ * <pre>
+ * [bodyLength:int][id:long][maxId:long][createTime:long][updateTime:long][seqBits:byte][tagLength:short][bizTag][crc32:int]
+ * </pre>
+ * 追加与刷盘分离：append只写页缓存并返回写入位置，awaitDurable按位置等待落盘；
+ * 同时等待的线程共享一次force，实现批量刷盘。
+ * 启动时顺序回放，遇到截断或校验失败的尾部记录即截断文件。
+ * 压缩时把每个标签的最新记录写入临时文件后原子替换，并刷盘所在目录，保证替换本身在崩溃后仍然可见。
+ *
+ * @author Peng Dan
+ * @since 2.0
+ */
+@Slf4j
+final class SegmentMetaJournal implements Closeable {
+
+    private static final String JOURNAL_FILE = "segment-meta.journal";
+    private static final String LOCK_FILE = "segment-meta.lock";
+    private static final int FIXED_BODY_LENGTH = Long.BYTES * 4 + Byte.BYTES + Short.BYTES;
+    private static final int MAX_TAG_LENGTH = 1024;
+    private static final boolean WINDOWS = System.getProperty("os.name", "").startsWith("Windows");
+
+    /**
+     * 标签状态记录
+     */
+    record Entry(long id, String bizTag, long maxId, int seqBits, long createTime, long updateTime) {
+    }
+
+    private final Path file;
+    private final FileChannel lockChannel;
+    private final FileLock fileLock;
+    private final Object appendLock = new Object();
+    private final Object forceLock = new Object();
+    /**
+     * 每个标签最新的记录，即压缩后的文件内容，由appendLock保护
+     */
+    private final Map<String, Entry> latest;
+    private FileChannel channel;
+    /**
+     * 累计追加的字节数，跨压缩单调递增，由appendLock保护
+     */
+    private long appended;
+    private volatile long durable;
+
+    private SegmentMetaJournal(Path file, FileChannel lockChannel, FileLock fileLock,
+                               FileChannel channel, Map<String, Entry> latest) throws IOException {
+        this.file = file;
+        this.lockChannel = lockChannel;
+        this.fileLock = fileLock;
+        this.channel = channel;
+        this.latest = latest;
+        this.appended = channel.size();
+        this.durable = appended;
+    }
+
+    /**
+     * 打开目录下的日志并回放，目录被其他进程占用时失败
+     */
+    static SegmentMetaJournal open(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        FileChannel lockChannel = FileChannel.open(directory.resolve(LOCK_FILE),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        FileLock fileLock = lockChannel.tryLock();
+        if (fileLock == null) {
+            lockChannel.close();
+            throw new IOException("Embedded segment store is locked by another process: " + directory);
+        }
+        Path file = directory.resolve(JOURNAL_FILE);
+        FileChannel channel = null;
+        try {
+            boolean created = Files.notExists(file);
+            channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+            if (created) {
+                forceDirectory(directory);
+            }
+            Map<String, Entry> latest = new HashMap<>();
+            long valid = replay(channel, latest);
+            if (valid < channel.size()) {
+                log.warn("Truncating torn segment journal tail: file={}, valid={}, size={}",
+                        file, valid, channel.size());
+                channel.truncate(valid);
+                channel.force(true);
+            }
+            channel.position(valid);
+            return new SegmentMetaJournal(file, lockChannel, fileLock, channel, latest);
+        } catch (IOException | RuntimeException e) {
+            if (channel != null) {
+                channel.close();
+            }
+            fileLock.release();
+            lockChannel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * 顺序回放日志，返回最后一条完整记录的结束位置
+     */
+    private static long replay(FileChannel channel, Map<String, Entry> latest) throws IOException {
+        long size = channel.size();
+        ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(size, Integer.MAX_VALUE - 8));
+        while (buffer.hasRemaining() && channel.read(buffer, buffer.position()) >= 0) {
+            // 读满为止
+        }
+        buffer.flip();
+        CRC32 crc = new CRC32();
+        int valid = 0;
+        while (buffer.remaining() >= Integer.BYTES) {
+            int bodyLength = buffer.getInt(valid);
+            if (bodyLength < FIXED_BODY_LENGTH || bodyLength > FIXED_BODY_LENGTH + MAX_TAG_LENGTH
+                    || buffer.limit() - valid < Integer.BYTES * 2 + bodyLength) {
+                break;
+            }
+            int bodyStart = valid + Integer.BYTES;
+            crc.reset();
+            crc.update(buffer.slice(bodyStart, bodyLength));
+            if ((int) crc.getValue() != buffer.getInt(bodyStart + bodyLength)) {
+                break;
+            }
+            ByteBuffer body = buffer.slice(bodyStart, bodyLength);
+            long id = body.getLong();
+            long maxId = body.getLong();
+            long createTime = body.getLong();
+            long updateTime = body.getLong();
+            int seqBits = body.get();
+            int tagLength = body.getShort();
+            if (tagLength != body.remaining()) {
+                break;
+            }
+            byte[] tag = new byte[tagLength];
+            body.get(tag);
+            String bizTag = new String(tag, StandardCharsets.UTF_8);
+            latest.put(bizTag, new Entry(id, bizTag, maxId, seqBits, createTime, updateTime));
+            valid = bodyStart + bodyLength + Integer.BYTES;
+            buffer.position(valid);
+        }
+        return valid;
+    }
+
+    /**
+     * 回放得到的每个标签最新记录
+     */
+    Collection<Entry> entries() {
+        synchronized (appendLock) {
+            return new ArrayList<>(latest.values());
+        }
+    }
+
+    /**
+     * 追加一条记录（只写入页缓存）
+     *
+     * @return 追加后的累计位置，传给awaitDurable等待落盘
+     */
+    long append(Entry entry) throws IOException {
+        ByteBuffer record = encode(entry);
+        synchronized (appendLock) {
+            while (record.hasRemaining()) {
+                channel.write(record);
+            }
+            latest.put(entry.bizTag(), entry);
+            appended += record.limit();
+            return appended;
+        }
+    }
+
+    /**
+     * 等待position之前的记录落盘；持有forceLock期间到达的线程由下一次force一并覆盖
+     */
+    void awaitDurable(long position) throws IOException {
+        if (durable >= position) {
+            return;
+        }
+        synchronized (forceLock) {
+            if (durable >= position) {
+                return;
+            }
+            long target;
+            FileChannel current;
+            synchronized (appendLock) {
+                target = appended;
+                current = channel;
+            }
+            current.force(false);
+            durable = target;
+        }
+    }
+
+    /**
+     * 日志文件当前大小
+     */
+    long size() throws IOException {
+        synchronized (appendLock) {
+            return channel.size();
+        }
+    }
+
+    /**
+     * 把每个标签的最新记录写入临时文件，刷盘后原子替换日志文件
+     */
+    void compact() throws IOException {
+        synchronized (forceLock) {
+            synchronized (appendLock) {
+                Path tmp = file.resolveSibling(JOURNAL_FILE + ".tmp");
+                try (FileChannel out = FileChannel.open(tmp, StandardOpenOption.CREATE,
+                        StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                    for (Entry entry : latest.values()) {
+                        ByteBuffer record = encode(entry);
+                        while (record.hasRemaining()) {
+                            out.write(record);
+                        }
+                    }
+                    out.force(true);
+                }
+                long before = channel.size();
+                Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                // 目录项落盘前崩溃，重启后看到的可能仍是旧文件，之后追加到新文件的记录会丢失
+                forceDirectory(file.getParent());
+                channel.close();
+                channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+                channel.position(channel.size());
+                // 新文件已包含全部已追加的状态，文件内容与目录项均已落盘
+                durable = appended;
+                log.info("Segment journal compacted: tags={}, before={}, after={}",
+                        latest.size(), before, channel.size());
+            }
+        }
+    }
+
+    /**
+     * 刷盘目录，使其中文件的创建和替换持久化；Windows不支持以通道打开目录，跳过
+     */
+    private static void forceDirectory(Path directory) throws IOException {
+        if (WINDOWS) {
+            return;
+        }
+        try (FileChannel dir = FileChannel.open(directory, StandardOpenOption.READ)) {
+            dir.force(true);
+        }
+    }
+
+    private static ByteBuffer encode(Entry entry) {
+        byte[] tag = entry.bizTag().getBytes(StandardCharsets.UTF_8);
+        if (tag.length > MAX_TAG_LENGTH) {
+            throw new IllegalArgumentException("bizTag too long: " + entry.bizTag());
+        }
+        int bodyLength = FIXED_BODY_LENGTH + tag.length;
+        ByteBuffer buffer = ByteBuffer.allocate(Integer.BYTES * 2 + bodyLength);
+        buffer.putInt(bodyLength)
+                .putLong(entry.id())
+                .putLong(entry.maxId())
+                .putLong(entry.createTime())
+                .putLong(entry.updateTime())
+                .put((byte) entry.seqBits())
+                .putShort((short) tag.length)
+                .put(tag);
+        CRC32 crc = new CRC32();
+        crc.update(buffer.slice(Integer.BYTES, bodyLength));
+        buffer.putInt((int) crc.getValue());
+        return buffer.flip();
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (forceLock) {
+            synchronized (appendLock) {
+                try {
+                    channel.force(true);
+                    channel.close();
+                } finally {
+                    fileLock.release();
+                    lockChannel.close();
+                }
+            }
+        }
+    }
+}
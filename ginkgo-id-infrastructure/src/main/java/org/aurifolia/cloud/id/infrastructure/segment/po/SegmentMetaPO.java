@@ -26,6 +26,9 @@ public class SegmentMetaPO {
     @Column(name = "max_id", nullable = false)
     private Long maxId;
 
+    @Column(name = "seq_bits", nullable = false, updatable = false)
+    private Integer seqBits;
+
     @Column(name = "create_time", nullable = false, updatable = false)
     private LocalDateTime createTime;
 
@@ -1,10 +1,13 @@
 package org.aurifolia.cloud.id.infrastructure.segment.repository;
 
-import jakarta.persistence.LockModeType;
+import org.aurifolia.cloud.id.domain.segment.entity.SegmentMeta;
 import org.aurifolia.cloud.id.infrastructure.segment.po.SegmentMetaPO;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -17,6 +20,28 @@ public interface SegmentMetaJpaRepository extends JpaRepository<SegmentMetaPO, L
 
     Optional<SegmentMetaPO> findByBizTag(String bizTag);
 
-    @Lock(LockModeType.PESSIMISTIC_WRITE)
-    Optional<SegmentMetaPO> findWithLockByBizTag(String bizTag);
+    boolean existsByBizTag(String bizTag);
+
+    @Query("select coalesce(max(p.id), 0) from SegmentMetaPO p")
+    long findMaxId();
+
+    List<SegmentMetaPO> findByIdGreaterThan(long id);
+
+    /**
+     * 推进max_id并通过LAST_INSERT_ID(expr)把新值记录在当前连接上；
+     * 推进后超过该行序列号位宽下的最大号段编号时不更新
+     *
+     * @return 更新的行数，业务标签不存在或号段编号将溢出时为0
+     */
+    @Modifying
+    @Query(value = "UPDATE segment_meta SET max_id = LAST_INSERT_ID(max_id + :count) WHERE biz_tag = :bizTag"
+            + " AND max_id + :count <= (1 << (" + SegmentMeta.PAYLOAD_BITS + " - seq_bits)) - 1",
+            nativeQuery = true)
+    int advanceMaxId(@Param("bizTag") String bizTag, @Param("count") int count);
+
+    /**
+     * 读取当前连接上最近一次LAST_INSERT_ID(expr)记录的值
+     */
+    @Query(value = "SELECT LAST_INSERT_ID()", nativeQuery = true)
+    Number lastInsertId();
 }
@@ -1,20 +1,26 @@
 package org.aurifolia.cloud.id.infrastructure.segment.repository;
 
 import lombok.RequiredArgsConstructor;
+import org.aurifolia.cloud.common.ddd.DomainException;
+import org.aurifolia.cloud.id.domain.exception.IdDomainErrorCode;
 import org.aurifolia.cloud.id.domain.segment.entity.SegmentMeta;
 import org.aurifolia.cloud.id.domain.segment.repository.SegmentMetaRepository;
+import org.aurifolia.cloud.id.domain.segment.valueobject.SegmentRange;
 import org.aurifolia.cloud.id.infrastructure.segment.po.SegmentMetaPO;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 /**
- * 号段元数据仓储实现
+ * 号段元数据仓储实现（MySQL），embedded profile下由EmbeddedSegmentMetaRepository替代
  *
  * @author Peng Dan
  * @since 2.0
  */
 @Repository
+@Profile("!embedded")
 @RequiredArgsConstructor
 public class SegmentMetaRepositoryImpl implements SegmentMetaRepository {
 
@@ -25,27 +31,42 @@ public class SegmentMetaRepositoryImpl implements SegmentMetaRepository {
         return jpaRepository.findByBizTag(bizTag).map(this::toEntity);
     }
 
+    /**
+     * 两条语句须在同一事务（同一连接）内执行，由调用方的事务保证；
+     * 没有更新任何行时再查一次区分业务标签不存在和号段编号耗尽
+     */
     @Override
-    public Optional<SegmentMeta> findByBizTagForUpdate(String bizTag) {
-        return jpaRepository.findWithLockByBizTag(bizTag).map(this::toEntity);
+    public Optional<SegmentRange> allocate(String bizTag, int count) {
+        if (jpaRepository.advanceMaxId(bizTag, count) == 0) {
+            if (jpaRepository.existsByBizTag(bizTag)) {
+                throw new DomainException(IdDomainErrorCode.SEGMENT_EXHAUSTED, bizTag);
+            }
+            return Optional.empty();
+        }
+        long maxId = jpaRepository.lastInsertId().longValue();
+        return Optional.of(SegmentRange.ofUpperBound(bizTag, maxId, count));
     }
 
     @Override
-    public void save(SegmentMeta meta) {
-        SegmentMetaPO po = toPO(meta);
-        SegmentMetaPO saved = jpaRepository.save(po);
-        meta.assignId(saved.getId());
+    public long findMaxId() {
+        return jpaRepository.findMaxId();
+    }
+
+    @Override
+    public List<SegmentMeta> findByIdGreaterThan(long id) {
+        return jpaRepository.findByIdGreaterThan(id).stream().map(this::toEntity).toList();
     }
 
     @Override
-    public void update(SegmentMeta meta) {
+    public void save(SegmentMeta meta) {
         SegmentMetaPO po = toPO(meta);
-        jpaRepository.save(po);
+        SegmentMetaPO saved = jpaRepository.save(po);
+        meta.assignId(saved.getId());
     }
 
     private SegmentMeta toEntity(SegmentMetaPO po) {
         return SegmentMeta.reconstitute(
-                po.getId(), po.getBizTag(), po.getMaxId(),
+                po.getId(), po.getBizTag(), po.getMaxId(), po.getSeqBits(),
                 po.getCreateTime(), po.getUpdateTime());
     }
 
@@ -54,6 +75,7 @@ public class SegmentMetaRepositoryImpl implements SegmentMetaRepository {
         po.setId(entity.getId());
         po.setBizTag(entity.getBizTag());
         po.setMaxId(entity.getMaxId());
+        po.setSeqBits(entity.getSeqBits());
         po.setCreateTime(entity.getCreateTime());
         po.setUpdateTime(entity.getUpdateTime());
         return po;
@@ -0,0 +1,42 @@
+package org.aurifolia.cloud.id.interfaces.actuator;
+
+import org.aurifolia.cloud.id.application.segment.metrics.HotTag;
+import org.aurifolia.cloud.id.application.segment.metrics.SegmentAllocationMetrics;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * 热点业务标签端点：/actuator/hottags、/actuator/hottags/{limit}
+ *
+ * @author Peng Dan
+ * @since 2.0
+ */
+@Component
+@Endpoint(id = "hottags")
+public class HotTagsEndpoint {
+
+    private static final int DEFAULT_LIMIT = 20;
+
+    private final SegmentAllocationMetrics metrics;
+
+    public HotTagsEndpoint(SegmentAllocationMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * 按分配速率降序列出最热的业务标签
+     */
+    @ReadOperation
+    public List<HotTag> hotTags() {
+        return metrics.hottestTags(DEFAULT_LIMIT);
+    }
+
+    @ReadOperation
+    public List<HotTag> hotTags(@Selector int limit) {
+        return metrics.hottestTags(Math.max(limit, 0));
+    }
+}
@@ -0,0 +1,50 @@
+package org.aurifolia.cloud.id.interfaces.http.controller;
+
+import org.aurifolia.cloud.common.model.Result;
+import org.aurifolia.cloud.id.application.segment.command.IssueIdsCommand;
+import org.aurifolia.cloud.id.application.segment.dto.IdRunsDTO;
+import org.aurifolia.cloud.id.application.segment.metrics.SegmentAllocationMetrics;
+import org.aurifolia.cloud.id.application.segment.service.IdIssueAppService;
+import org.aurifolia.cloud.id.interfaces.http.request.IssueIdsRequest;
+import org.aurifolia.cloud.id.interfaces.http.response.IdRunsResponse;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * ID签发HTTP接口，直接返回现成的ID，供无法内嵌SDK的客户端使用
+ *
+ * @author Peng Dan
+ * @since 2.0
+ */
+@RestController
+@RequestMapping("/api/v1/id")
+public class IdController {
+
+    private static final String TRANSPORT = "http-ids";
+
+    private final IdIssueAppService appService;
+    private final SegmentAllocationMetrics metrics;
+
+    public IdController(IdIssueAppService appService, SegmentAllocationMetrics metrics) {
+        this.appService = appService;
+        this.metrics = metrics;
+    }
+
+    /**
+     * 批量签发ID，按连续区间返回
+     */
+    @PostMapping("/batch")
+    public Result<IdRunsResponse> issueIds(@Validated @RequestBody IssueIdsRequest request) {
+        long startNanos = System.nanoTime();
+        try {
+            IdRunsDTO dto = appService.issueIds(new IssueIdsCommand(request.getBizTag(),
+                    request.getCount() != null ? request.getCount() : 1));
+            return Result.success(new IdRunsResponse(dto.getBizTag(), dto.getCount(), dto.getRuns()));
+        } finally {
+            metrics.recordHandler(request.getBizTag(), TRANSPORT, System.nanoTime() - startNanos);
+        }
+    }
+}
@@ -5,6 +5,7 @@ import org.aurifolia.cloud.common.model.Result;
 import org.aurifolia.cloud.id.application.segment.command.AllocateSegmentCommand;
 import org.aurifolia.cloud.id.application.segment.command.SegmentMetaRegisterCommand;
 import org.aurifolia.cloud.id.application.segment.dto.SegmentMetaDTO;
+import org.aurifolia.cloud.id.application.segment.metrics.SegmentAllocationMetrics;
 import org.aurifolia.cloud.id.application.segment.service.SegmentMetaAppService;
 import org.aurifolia.cloud.id.interfaces.http.request.AllocateSegmentRequest;
 import org.aurifolia.cloud.id.interfaces.http.request.RegisterBizTagRequest;
@@ -23,10 +24,14 @@ import org.springframework.web.bind.annotation.*;
 @RequestMapping("/api/v1/segment")
 public class SegmentMetaController {
 
+    private static final String TRANSPORT = "http";
+
     private final SegmentMetaAppService appService;
+    private final SegmentAllocationMetrics metrics;
 
-    public SegmentMetaController(SegmentMetaAppService appService) {
+    public SegmentMetaController(SegmentMetaAppService appService, SegmentAllocationMetrics metrics) {
         this.appService = appService;
+        this.metrics = metrics;
     }
 
     /**
@@ -34,21 +39,25 @@ public class SegmentMetaController {
      */
     @PostMapping("/register")
     public Result<Void> registerBizTag(@Validated @RequestBody RegisterBizTagRequest request) {
-        appService.registerBizTag(new SegmentMetaRegisterCommand(request.getBizTag()));
+        appService.registerBizTag(new SegmentMetaRegisterCommand(request.getBizTag(), request.getSeqBits()));
         return Result.success(null);
     }
 
     /**
-     * 分配号段
+     * 分配号段，count大于1时一次分配连续多个号段
      */
     @PostMapping("/allocate")
     public Result<SegmentMetaResponse> allocateSegment(
             @Validated @RequestBody AllocateSegmentRequest request) {
-        SegmentMetaDTO dto = appService.allocateSegment(
-                new AllocateSegmentCommand(request.getBizTag()));
-        SegmentMetaResponse response = new SegmentMetaResponse(
-                dto.getId(), dto.getBizTag(), dto.getMaxId(),
-                dto.getCreateTime(), dto.getUpdateTime());
-        return Result.success(response);
+        long startNanos = System.nanoTime();
+        try {
+            SegmentMetaDTO dto = appService.allocateSegment(
+                    new AllocateSegmentCommand(request.getBizTag(), request.getCount() != null ? request.getCount() : 1));
+            SegmentMetaResponse response = new SegmentMetaResponse(
+                    dto.getBizTag(), dto.getMaxId(), dto.getAllocatedCount(), dto.getSeqBits());
+            return Result.success(response);
+        } finally {
+            metrics.recordHandler(request.getBizTag(), TRANSPORT, System.nanoTime() - startNanos);
+        }
     }
 }
@@ -1,7 +1,10 @@
 package org.aurifolia.cloud.id.interfaces.http.request;
 
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import lombok.Data;
+import org.aurifolia.cloud.id.domain.segment.entity.SegmentMeta;
 
 /**
  * 分配号段请求
@@ -17,4 +20,11 @@ public class AllocateSegmentRequest {
      */
     @NotBlank(message = "业务标签不能为空")
     private String bizTag;
+
+    /**
+     * 分配的号段数量，默认1
+     */
+    @Min(value = 1, message = "号段数量不能小于1")
+    @Max(value = SegmentMeta.MAX_ALLOCATE_COUNT, message = "号段数量不能大于" + SegmentMeta.MAX_ALLOCATE_COUNT)
+    private Integer count = 1;
 }
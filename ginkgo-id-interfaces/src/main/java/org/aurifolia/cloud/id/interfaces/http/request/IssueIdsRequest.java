@@ -0,0 +1,30 @@
+package org.aurifolia.cloud.id.interfaces.http.request;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import lombok.Data;
+import org.aurifolia.cloud.id.application.segment.command.IssueIdsCommand;
+
+/**
+ * 批量签发ID请求
+ *
+ * @author Peng Dan
+ * @since 2.0
+ */
+@Data
+public class IssueIdsRequest {
+
+    /**
+     * 业务标签
+     */
+    @NotBlank(message = "业务标签不能为空")
+    private String bizTag;
+
+    /**
+     * 签发的ID数量，默认1
+     */
+    @Min(value = 1, message = "ID数量不能小于1")
+    @Max(value = IssueIdsCommand.MAX_COUNT, message = "ID数量不能大于" + IssueIdsCommand.MAX_COUNT)
+    private Integer count = 1;
+}
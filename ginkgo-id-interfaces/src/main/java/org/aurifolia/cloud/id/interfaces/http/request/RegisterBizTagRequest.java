@@ -2,6 +2,8 @@ package org.aurifolia.cloud.id.interfaces.http.request;
 
 import lombok.Data;
 
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 
 /**
@@ -18,4 +20,11 @@ public class RegisterBizTagRequest {
      */
     @NotBlank(message = "业务标签不能为空")
     private String bizTag;
+
+    /**
+     * 序列号位宽，不传时使用默认的20位；注册后不可修改
+     */
+    @Min(value = 8, message = "序列号位宽不能小于8")
+    @Max(value = 30, message = "序列号位宽不能大于30")
+    private Integer seqBits;
 }
@@ -0,0 +1,33 @@
+package org.aurifolia.cloud.id.interfaces.http.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 批量签发ID响应
+ *
+ * @author Peng Dan
+ * @since 2.0
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class IdRunsResponse {
+
+    /**
+     * 业务标签
+     */
+    private String bizTag;
+
+    /**
+     * 签发的ID数量
+     */
+    private Integer count;
+
+    /**
+     * 连续ID区间[start0, length0, start1, length1, ...]，区间内的ID为start ~ start + length - 1，
+     * 通常只有一到几个区间
+     */
+    private long[] runs;
+}
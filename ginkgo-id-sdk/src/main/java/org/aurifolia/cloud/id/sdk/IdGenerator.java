@@ -1,5 +1,8 @@
 package org.aurifolia.cloud.id.sdk;
 
+import java.nio.LongBuffer;
+import java.util.Objects;
+
 /**
  * ID生成器接口
  * <p>
@@ -16,4 +19,55 @@ public interface IdGenerator {
      * @return ID
      */
     long nextId();
+
+    /**
+     * 批量生成ID，写入数组的[off, off + len)区间
+     * <p>
+     * 默认实现逐个调用{@link #nextId()}，实现类应覆盖为按号段整段切割的批量实现
+     *
+     * @param dst 目标数组
+     * @param off 起始下标
+     * @param len 生成数量
+     */
+    default void nextIds(long[] dst, int off, int len) {
+        Objects.checkFromIndexSize(off, len, dst.length);
+        for (int i = off, end = off + len; i < end; i++) {
+            dst[i] = nextId();
+        }
+    }
+
+    /**
+     * 批量生成ID，填满缓冲区position到limit之间的剩余空间
+     *
+     * @param dst 目标缓冲区，完成后position等于limit
+     */
+    default void nextIds(LongBuffer dst) {
+        while (dst.hasRemaining()) {
+            dst.put(nextId());
+        }
+    }
+
+    /**
+     * 批量生成指定数量的ID
+     *
+     * @param count 生成数量
+     * @return ID数组
+     */
+    default long[] nextIds(int count) {
+        long[] ids = new long[count];
+        nextIds(ids, 0, count);
+        return ids;
+    }
+
+    /**
+     * 批量生成指定数量的ID，按连续区间输出，编码见{@link IdRuns}
+     * <p>
+     * 默认实现合并{@link #nextIds(int)}结果中相邻的ID，实现类可直接输出切割得到的区间
+     *
+     * @param count 生成数量
+     * @return [start0, length0, start1, length1, ...]，区间长度之和为count
+     */
+    default long[] nextIdRuns(int count) {
+        return IdRuns.pack(nextIds(count), 0, count);
+    }
 }
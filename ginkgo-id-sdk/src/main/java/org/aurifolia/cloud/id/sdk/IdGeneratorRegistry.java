@@ -0,0 +1,21 @@
+package org.aurifolia.cloud.id.sdk;
+
+/**
+ * 多业务标签ID生成器注册表
+ * <p>
+ * 按业务标签获取ID生成器，同一注册表内的业务标签各自使用独立的号段获取线程，共享其余后台线程。
+ * 热路径上建议持有{@link #forTag(String)}返回的生成器引用，避免重复查找。
+ *
+ * @author Peng Dan
+ * @since 2.0
+ */
+public interface IdGeneratorRegistry {
+
+    /**
+     * 获取业务标签对应的ID生成器，首次获取时创建并初始化号段缓冲
+     *
+     * @param bizTag 业务标签
+     * @return ID生成器
+     */
+    IdGenerator forTag(String bizTag);
+}
@@ -0,0 +1,83 @@
+package org.aurifolia.cloud.id.sdk;
+
+import java.util.Arrays;
+
+/**
+ * 连续ID区间编码
+ * <p>
+ * 一批ID表示为[start0, length0, start1, length1, ...]，区间内的ID为start, start + 1, ..., start + length - 1。
+ * 同一号段内切割出的ID是连续的，一批ID通常只有少数几个区间，传输量与ID数量无关。
+ *
+ * @author Peng Dan
+ * @since 2.0
+ */
+public final class IdRuns {
+
+    private IdRuns() {
+    }
+
+    /**
+     * 把ID数组的[off, off + len)区间按顺序合并为连续区间
+     */
+    public static long[] pack(long[] ids, int off, int len) {
+        Builder builder = new Builder();
+        for (int i = off, end = off + len; i < end; i++) {
+            builder.add(ids[i], 1);
+        }
+        return builder.build();
+    }
+
+    /**
+     * 区间内的ID总数
+     */
+    public static long count(long[] runs) {
+        long count = 0;
+        for (int i = 1; i < runs.length; i += 2) {
+            count += runs[i];
+        }
+        return count;
+    }
+
+    /**
+     * 展开为ID数组
+     */
+    public static long[] expand(long[] runs) {
+        long[] ids = new long[Math.toIntExact(count(runs))];
+        int pos = 0;
+        for (int i = 0; i < runs.length; i += 2) {
+            long start = runs[i];
+            for (long n = 0; n < runs[i + 1]; n++) {
+                ids[pos++] = start + n;
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * 区间累加器，与上一个区间首尾相接的区间直接合并
+     */
+    public static final class Builder {
+
+        private long[] runs = new long[8];
+        private int size;
+
+        public void add(long start, long length) {
+            if (length <= 0) {
+                return;
+            }
+            if (size > 0 && runs[size - 2] + runs[size - 1] == start) {
+                runs[size - 1] += length;
+                return;
+            }
+            if (size == runs.length) {
+                runs = Arrays.copyOf(runs, size * 2);
+            }
+            runs[size++] = start;
+            runs[size++] = length;
+        }
+
+        public long[] build() {
+            return Arrays.copyOf(runs, size);
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package org.aurifolia.cloud.id.sdk.binary;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 二进制号段分配协议
+ * <p>
+ * 长连接上的定长帧协议，客户端可连续发出多个请求（流水线），服务端按完成顺序返回，通过requestId匹配：
+ * <pre>
+ * 请求: [frameLength:int][requestId:int][count:short][tagLength:short][bizTag:UTF-8]
+ *       frameLength为frameLength之后的字节数，即8 + tagLength
+ * 响应: [requestId:int][status:byte][seqBits:byte][count:short][maxId:long]  定长16字节
+ * </pre>
+ * 全部字段为大端序。分配成功时号段区间为[maxId - count + 1, maxId]；失败时status非0，其余字段无意义。
+ *
+ * @author Peng Dan
+ * @since 2.0
+ */
+public final class BinarySegmentProtocol {
+
+    public static final int REQUEST_HEADER_SIZE = Integer.BYTES * 2 + Short.BYTES * 2;
+    public static final int RESPONSE_SIZE = 16;
+    public static final int MAX_TAG_LENGTH = 1024;
+
+    public static final byte STATUS_OK = 0;
+    public static final byte STATUS_NOT_FOUND = 1;
+    public static final byte STATUS_BAD_REQUEST = 2;
+    public static final byte STATUS_ERROR = 3;
+
+    private BinarySegmentProtocol() {
+    }
+
+    /**
+     * 分配请求
+     */
+    public record Request(int requestId, int count, String bizTag) {
+    }
+
+    /**
+     * 分配响应
+     */
+    public record Response(int requestId, byte status, int seqBits, int count, long maxId) {
+
+        public boolean isSuccess() {
+            return status == STATUS_OK;
+        }
+    }
+
+    /**
+     * 编码请求帧
+     *
+     * @throws IllegalArgumentException bizTag超过MAX_TAG_LENGTH字节或count超出short范围
+     */
+    public static ByteBuffer encodeRequest(int requestId, int count, String bizTag) {
+        byte[] tag = bizTag.getBytes(StandardCharsets.UTF_8);
+        if (tag.length > MAX_TAG_LENGTH || count < 1 || count > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Invalid segment request: bizTag=" + bizTag + ", count=" + count);
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(REQUEST_HEADER_SIZE + tag.length);
+        buffer.putInt(REQUEST_HEADER_SIZE - Integer.BYTES + tag.length)
+                .putInt(requestId)
+                .putShort((short) count)
+                .putShort((short) tag.length)
+                .put(tag);
+        return buffer.flip();
+    }
+
+    /**
+     * 从缓冲中解码一个完整的请求帧，不完整时不移动position
+     *
+     * @return 请求，数据不足一帧时返回null
+     * @throws IllegalArgumentException 帧长度非法（调用方应关闭连接）
+     */
+    public static Request decodeRequest(ByteBuffer buffer) {
+        if (buffer.remaining() < Integer.BYTES) {
+            return null;
+        }
+        int start = buffer.position();
+        int frameLength = buffer.getInt(start);
+        if (frameLength < REQUEST_HEADER_SIZE - Integer.BYTES
+                || frameLength > REQUEST_HEADER_SIZE - Integer.BYTES + MAX_TAG_LENGTH) {
+            throw new IllegalArgumentException("Invalid frame length: " + frameLength);
+        }
+        if (buffer.remaining() < Integer.BYTES + frameLength) {
+            return null;
+        }
+        int requestId = buffer.getInt(start + 4);
+        int count = buffer.getShort(start + 8);
+        int tagLength = buffer.getShort(start + 10);
+        if (tagLength != frameLength - (REQUEST_HEADER_SIZE - Integer.BYTES)) {
+            throw new IllegalArgumentException("Invalid tag length: " + tagLength);
+        }
+        String bizTag = new String(buffer.array(), buffer.arrayOffset() + start + REQUEST_HEADER_SIZE,
+                tagLength, StandardCharsets.UTF_8);
+        buffer.position(start + Integer.BYTES + frameLength);
+        return new Request(requestId, count, bizTag);
+    }
+
+    /**
+     * 把响应写入缓冲的当前位置
+     */
+    public static void encodeResponse(ByteBuffer buffer, int requestId, byte status, int seqBits,
+                                      int count, long maxId) {
+        buffer.putInt(requestId)
+                .put(status)
+                .put((byte) seqBits)
+                .putShort((short) count)
+                .putLong(maxId);
+    }
+
+    /**
+     * 从缓冲的当前位置读取一个响应，调用方保证剩余字节不少于RESPONSE_SIZE
+     */
+    public static Response decodeResponse(ByteBuffer buffer) {
+        int requestId = buffer.getInt();
+        byte status = buffer.get();
+        int seqBits = buffer.get();
+        int count = buffer.getShort();
+        long maxId = buffer.getLong();
+        return new Response(requestId, status, seqBits, count, maxId);
+    }
+}
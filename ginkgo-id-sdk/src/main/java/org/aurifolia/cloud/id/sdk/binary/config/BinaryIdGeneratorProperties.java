@@ -0,0 +1,40 @@
+package org.aurifolia.cloud.id.sdk.binary.config;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.aurifolia.cloud.id.sdk.config.AbstractIdGeneratorProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 二进制协议SDK配置属性
+ *
+ * @author Peng Dan
+ * @since 2.0
+ */
+@Data
+@EqualsAndHashCode(callSuper = true)
+@ToString(callSuper = true)
+@ConfigurationProperties(prefix = "ginkgo.id.sdk.binary")
+public class BinaryIdGeneratorProperties extends AbstractIdGeneratorProperties {
+
+    /**
+     * 服务端二进制端点地址，默认localhost
+     */
+    private String host = "localhost";
+
+    /**
+     * 服务端二进制端点端口，默认60103
+     */
+    private Integer port = 60103;
+
+    /**
+     * 建立连接的超时（毫秒），默认1000
+     */
+    private Integer connectTimeoutMillis = 1000;
+
+    /**
+     * 单次号段请求的超时（毫秒），默认1000
+     */
+    private Long requestTimeoutMillis = 1000L;
+}
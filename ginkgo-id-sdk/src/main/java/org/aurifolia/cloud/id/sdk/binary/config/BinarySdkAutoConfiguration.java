@@ -0,0 +1,56 @@
+package org.aurifolia.cloud.id.sdk.binary.config;
+
+import org.aurifolia.cloud.id.sdk.IdGenerator;
+import org.aurifolia.cloud.id.sdk.IdGeneratorRegistry;
+import org.aurifolia.cloud.id.sdk.fetcher.binary.BinarySegmentClient;
+import org.aurifolia.cloud.id.sdk.fetcher.binary.BinarySegmentFetcher;
+import org.aurifolia.cloud.id.sdk.internal.GeneratorMetricsFactory;
+import org.aurifolia.cloud.id.sdk.internal.SegmentIdGeneratorOptions;
+import org.aurifolia.cloud.id.sdk.internal.SegmentIdGeneratorRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 二进制协议SDK自动配置类，需要服务端开启ginkgo.id.server.binary.enabled
+ *
+ * @author Peng Dan
+ * @since 2.0
+ */
+@Configuration
+@EnableConfigurationProperties(BinaryIdGeneratorProperties.class)
+@ConditionalOnProperty(name = "ginkgo.id.sdk.binary.enabled", havingValue = "true", matchIfMissing = false)
+public class BinarySdkAutoConfiguration {
+
+    /**
+     * 创建二进制协议客户端Bean，所有业务标签共享一条长连接
+     */
+    @Bean(destroyMethod = "close")
+    public BinarySegmentClient binarySegmentClient(BinaryIdGeneratorProperties properties) {
+        return new BinarySegmentClient(properties.getHost(), properties.getPort(),
+                properties.getConnectTimeoutMillis(), properties.getRequestTimeoutMillis());
+    }
+
+    /**
+     * 创建基于二进制协议的多业务标签ID生成器注册表Bean
+     */
+    @Bean(destroyMethod = "shutdown")
+    public IdGeneratorRegistry idGeneratorRegistry(BinarySegmentClient binarySegmentClient,
+                                                   BinaryIdGeneratorProperties properties,
+                                                   ObjectProvider<GeneratorMetricsFactory> metricsFactory) {
+        SegmentIdGeneratorOptions options = properties.toGeneratorOptions();
+        options.setMetricsFactory(metricsFactory.getIfAvailable());
+        return new SegmentIdGeneratorRegistry(
+                bizTag -> new BinarySegmentFetcher(binarySegmentClient, bizTag), options);
+    }
+
+    /**
+     * 创建默认业务标签的ID生成器Bean，生命周期由注册表管理
+     */
+    @Bean(destroyMethod = "")
+    public IdGenerator idGenerator(IdGeneratorRegistry idGeneratorRegistry, BinaryIdGeneratorProperties properties) {
+        return idGeneratorRegistry.forTag(properties.getBizTag());
+    }
+}
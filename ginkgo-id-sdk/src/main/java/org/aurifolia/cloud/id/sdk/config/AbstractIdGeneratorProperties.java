@@ -0,0 +1,77 @@
+package org.aurifolia.cloud.id.sdk.config;
+
+import lombok.Data;
+import org.aurifolia.cloud.id.sdk.internal.AllocatorMode;
+import org.aurifolia.cloud.id.sdk.internal.SegmentIdGeneratorOptions;
+
+/**
+ * 各传输方式SDK配置属性的公共部分：默认业务标签、启用开关和生成器选项
+ * <p>
+ * 新增生成器选项时只需在此处增加字段并在{@link #toGeneratorOptions()}中转换，各传输方式的配置前缀下自动可用。
+ *
+ * @author Peng Dan
+ * @since 2.0
+ */
+@Data
+public abstract class AbstractIdGeneratorProperties {
+
+    /**
+     * 默认业务标签（IdGenerator Bean使用），其他业务标签通过IdGeneratorRegistry获取
+     */
+    private String bizTag = "default";
+
+    /**
+     * 是否启用
+     */
+    private Boolean enabled = false;
+
+    /**
+     * 是否启用降级模式，默认true
+     */
+    private Boolean degradeEnabled = true;
+
+    /**
+     * 活跃号段耗尽、等待在途号段补充的最长时间（毫秒），超时后回退到降级模式，默认1000
+     */
+    private Long refillWaitTimeoutMillis = 1000L;
+
+    /**
+     * 序列号分配器模式：AUTO（默认，虚拟线程使用分条分配器）、THREAD_LOCAL、STRIPED
+     */
+    private AllocatorMode allocatorMode = AllocatorMode.AUTO;
+
+    /**
+     * 线程本地分配器空闲多久（毫秒）后回收其剩余序列号，默认1000，0表示不回收
+     */
+    private Long reclaimIdleMillis = 1000L;
+
+    /**
+     * 租约日志目录，为空时不启用；启用后重启时直接从本地日志恢复号段
+     */
+    private String journalDirectory;
+
+    /**
+     * 租约日志检查点间隔（毫秒），默认100
+     */
+    private Long journalFlushIntervalMillis = 100L;
+
+    /**
+     * 租约日志高水位的最小安全余量（序列号个数），默认65536
+     */
+    private Long journalSafetyMargin = 65536L;
+
+    /**
+     * 转换为生成器选项
+     */
+    public SegmentIdGeneratorOptions toGeneratorOptions() {
+        SegmentIdGeneratorOptions options = new SegmentIdGeneratorOptions();
+        options.setDegradeEnabled(degradeEnabled);
+        options.setRefillWaitTimeoutMillis(refillWaitTimeoutMillis);
+        options.setAllocatorMode(allocatorMode);
+        options.setReclaimIdleMillis(reclaimIdleMillis);
+        options.setJournalDirectory(journalDirectory);
+        options.setJournalFlushIntervalMillis(journalFlushIntervalMillis);
+        options.setJournalSafetyMargin(journalSafetyMargin);
+        return options;
+    }
+}
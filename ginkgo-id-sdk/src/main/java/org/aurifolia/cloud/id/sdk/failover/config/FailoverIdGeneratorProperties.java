@@ -0,0 +1,70 @@
+package org.aurifolia.cloud.id.sdk.failover.config;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.aurifolia.cloud.id.sdk.config.AbstractIdGeneratorProperties;
+import org.aurifolia.cloud.id.sdk.fetcher.CircuitBreaker;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 故障转移SDK配置属性（Dubbo RPC优先，HTTP兜底）
+ *
+ * @author Peng Dan
+ * @since 2.0
+ */
+@Data
+@EqualsAndHashCode(callSuper = true)
+@ToString(callSuper = true)
+@ConfigurationProperties(prefix = "ginkgo.id.sdk.failover")
+public class FailoverIdGeneratorProperties extends AbstractIdGeneratorProperties {
+
+    /**
+     * 单个通道等待上限的默认值（毫秒），同时作为Dubbo引用的调用超时
+     */
+    public static final int DEFAULT_CALL_TIMEOUT_MILLIS = 1000;
+
+    /**
+     * HTTP通道异步获取号段的单次请求超时（毫秒），默认5000
+     */
+    private Long fetchTimeoutMillis = 5000L;
+
+    /**
+     * 单个通道的等待上限（毫秒），超过后转到下一个通道，默认1000；
+     * Dubbo引用的调用超时固定为默认值且不重试，调大该值不会延长RPC调用本身
+     */
+    private Long callTimeoutMillis = (long) DEFAULT_CALL_TIMEOUT_MILLIS;
+
+    /**
+     * 熔断统计窗口的调用数，默认20
+     */
+    private Integer breakerWindowSize = 20;
+
+    /**
+     * 窗口内至少多少次调用后才计算坏调用比例，默认5
+     */
+    private Integer breakerMinimumCalls = 5;
+
+    /**
+     * 坏调用（失败或慢调用）比例达到该值时熔断，默认0.5
+     */
+    private Double breakerFailureRateThreshold = 0.5;
+
+    /**
+     * 超过该耗时（毫秒）的调用计为慢调用，默认500
+     */
+    private Long breakerSlowCallMillis = 500L;
+
+    /**
+     * 熔断后后台探测的间隔（毫秒），默认5000
+     */
+    private Long breakerProbeIntervalMillis = 5000L;
+
+    /**
+     * 创建一个业务标签在一个通道上的熔断器
+     */
+    public CircuitBreaker newCircuitBreaker() {
+        return new CircuitBreaker(breakerWindowSize, breakerMinimumCalls,
+                breakerFailureRateThreshold, breakerSlowCallMillis);
+    }
+}
@@ -0,0 +1,91 @@
+package org.aurifolia.cloud.id.sdk.failover.config;
+
+import org.apache.dubbo.config.annotation.DubboReference;
+import org.apache.dubbo.config.spring.context.annotation.EnableDubbo;
+import org.aurifolia.cloud.id.sdk.IdGenerator;
+import org.aurifolia.cloud.id.sdk.IdGeneratorRegistry;
+import org.aurifolia.cloud.id.sdk.fetcher.FailoverSegmentFetcher;
+import org.aurifolia.cloud.id.sdk.fetcher.http.HttpSegmentFetcher;
+import org.aurifolia.cloud.id.sdk.fetcher.rpc.RpcSegmentFetcher;
+import org.aurifolia.cloud.id.sdk.http.feign.AsyncFeignClientFactory;
+import org.aurifolia.cloud.id.sdk.http.feign.AsyncIdGeneratorFeignClient;
+import org.aurifolia.cloud.id.sdk.http.feign.IdGeneratorFeignClient;
+import org.aurifolia.cloud.id.sdk.internal.GeneratorMetricsFactory;
+import org.aurifolia.cloud.id.sdk.internal.SegmentIdGeneratorOptions;
+import org.aurifolia.cloud.id.sdk.internal.SegmentIdGeneratorRegistry;
+import org.aurifolia.cloud.id.sdk.rpc.IdMetaService;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cloud.openfeign.EnableFeignClients;
+import org.springframework.cloud.openfeign.FeignClientFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * 故障转移SDK自动配置类
+ * <p>
+ * 同时接入Dubbo RPC和HTTP两个通道，号段获取先走RPC，熔断或失败时转到HTTP；
+ * 启用后不应再开启ginkgo.id.sdk.http.enabled或ginkgo.id.sdk.rpc.enabled
+ *
+ * @author Peng Dan
+ * @since 2.0
+ */
+@Configuration
+@EnableFeignClients(basePackages = "org.aurifolia.cloud.id.sdk.http.feign")
+@EnableDubbo(scanBasePackages = "org.aurifolia.cloud.id.sdk.failover.config")
+@EnableConfigurationProperties(FailoverIdGeneratorProperties.class)
+@ConditionalOnProperty(name = "ginkgo.id.sdk.failover.enabled", havingValue = "true", matchIfMissing = false)
+public class FailoverSdkAutoConfiguration {
+
+    private static final String RPC_TRANSPORT = "rpc";
+    private static final String HTTP_TRANSPORT = "http";
+
+    /**
+     * 超时与熔断由故障转移层负责：不重试，超时不超过默认的通道等待上限，放弃的调用不会在后台继续重试
+     */
+    @DubboReference(check = false, timeout = FailoverIdGeneratorProperties.DEFAULT_CALL_TIMEOUT_MILLIS, retries = 0)
+    private IdMetaService idMetaService;
+
+    /**
+     * 创建异步Feign客户端工厂Bean，复用IdGeneratorFeignClient的Feign配置
+     */
+    @Bean(destroyMethod = "close")
+    public AsyncFeignClientFactory asyncFeignClientFactory(FeignClientFactory feignClientFactory,
+                                                           FailoverIdGeneratorProperties properties) {
+        return new AsyncFeignClientFactory(feignClientFactory,
+                Duration.ofMillis(properties.getFetchTimeoutMillis()));
+    }
+
+    /**
+     * 创建故障转移的多业务标签ID生成器注册表Bean，每个业务标签的每个通道使用独立的熔断器
+     */
+    @Bean(destroyMethod = "shutdown")
+    public IdGeneratorRegistry idGeneratorRegistry(IdGeneratorFeignClient feignClient,
+                                                   AsyncFeignClientFactory asyncClientFactory,
+                                                   FailoverIdGeneratorProperties properties,
+                                                   @Value(IdGeneratorFeignClient.SERVER_URL) String serverUrl,
+                                                   ObjectProvider<GeneratorMetricsFactory> metricsFactory) {
+        AsyncIdGeneratorFeignClient asyncClient = asyncClientFactory.create(serverUrl);
+        SegmentIdGeneratorOptions options = properties.toGeneratorOptions();
+        options.setMetricsFactory(metricsFactory.getIfAvailable());
+        return new SegmentIdGeneratorRegistry(bizTag -> new FailoverSegmentFetcher(List.of(
+                new FailoverSegmentFetcher.Transport(RPC_TRANSPORT,
+                        new RpcSegmentFetcher(idMetaService, bizTag), properties.newCircuitBreaker()),
+                new FailoverSegmentFetcher.Transport(HTTP_TRANSPORT,
+                        new HttpSegmentFetcher(feignClient, asyncClient, bizTag), properties.newCircuitBreaker())),
+                properties.getCallTimeoutMillis(), properties.getBreakerProbeIntervalMillis()), options);
+    }
+
+    /**
+     * 创建默认业务标签的ID生成器Bean，生命周期由注册表管理
+     */
+    @Bean(destroyMethod = "")
+    public IdGenerator idGenerator(IdGeneratorRegistry idGeneratorRegistry, FailoverIdGeneratorProperties properties) {
+        return idGeneratorRegistry.forTag(properties.getBizTag());
+    }
+}
@@ -0,0 +1,31 @@
+package org.aurifolia.cloud.id.sdk.fetcher;
+
+/**
+ * 号段获取器基类，保存服务端随分配结果下发的序列号位宽
+ * <p>
+ * 位宽在注册业务标签时确定且不可变更，实现在获取成功时调用{@link #updateSeqBits(Integer)}记录即可；
+ * 旧版服务端不下发位宽，保持{@link #DEFAULT_SEQ_BITS}。
+ *
+ * @author Peng Dan
+ * @since 2.0
+ */
+public abstract class AbstractSegmentFetcher implements SegmentFetcher {
+
+    private volatile int seqBits = DEFAULT_SEQ_BITS;
+
+    @Override
+    public int seqBits() {
+        return seqBits;
+    }
+
+    /**
+     * 记录服务端下发的序列号位宽
+     *
+     * @param bits 序列号位宽，为null（旧版服务端未下发）时保持原值
+     */
+    protected void updateSeqBits(Integer bits) {
+        if (bits != null) {
+            seqBits = bits;
+        }
+    }
+}
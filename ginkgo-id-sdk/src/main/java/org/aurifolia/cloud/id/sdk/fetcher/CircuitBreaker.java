@@ -0,0 +1,116 @@
+package org.aurifolia.cloud.id.sdk.fetcher;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 号段获取通道的熔断器
+ * <p>
+ * 记录最近windowSize次调用的结果，失败或耗时超过slowCall的调用计为坏调用；
+ * 调用数不少于minimumCalls且坏调用比例达到阈值时打开，打开期间allowRequest直接返回false，调用方立即跳过该通道。
+ * 打开后由持有者在后台探测：tryHalfOpen成功的线程发出一次探测请求，成功则关闭，失败则重新打开。
+ * 状态读取无锁，结果记录和状态转换在锁内完成。
+ *
+ * @author Peng Dan
+ * @since 2.0
+ */
+public final class CircuitBreaker {
+
+    /**
+     * 熔断状态
+     */
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final int windowSize;
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final long slowCallNanos;
+    private final boolean[] badCalls;
+    private int count;
+    private int next;
+    private int bad;
+    private volatile State state = State.CLOSED;
+
+    /**
+     * @param windowSize           统计窗口的调用数
+     * @param minimumCalls         窗口内至少多少次调用后才计算比例
+     * @param failureRateThreshold 坏调用比例阈值，范围(0, 1]
+     * @param slowCallMillis       超过该耗时（毫秒）的成功调用也计为坏调用
+     */
+    public CircuitBreaker(int windowSize, int minimumCalls, double failureRateThreshold, long slowCallMillis) {
+        this.windowSize = windowSize;
+        this.minimumCalls = Math.min(minimumCalls, windowSize);
+        this.failureRateThreshold = failureRateThreshold;
+        this.slowCallNanos = TimeUnit.MILLISECONDS.toNanos(slowCallMillis);
+        this.badCalls = new boolean[windowSize];
+    }
+
+    /**
+     * 当前是否允许正常请求通过（仅CLOSED状态允许）
+     */
+    public boolean allowRequest() {
+        return state == State.CLOSED;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    /**
+     * 记录一次正常请求的结果
+     *
+     * @return 本次记录导致熔断器打开时返回true，调用方据此安排后台探测
+     */
+    public synchronized boolean onResult(boolean success, long latencyNanos) {
+        if (state != State.CLOSED) {
+            return false;
+        }
+        boolean isBad = !success || latencyNanos > slowCallNanos;
+        if (count == windowSize) {
+            if (badCalls[next]) {
+                bad--;
+            }
+        } else {
+            count++;
+        }
+        badCalls[next] = isBad;
+        if (isBad) {
+            bad++;
+        }
+        next = (next + 1) % windowSize;
+        if (count >= minimumCalls && bad >= failureRateThreshold * count) {
+            state = State.OPEN;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * 打开状态转为半开，只有一个线程能成功，由它发出探测请求
+     */
+    public synchronized boolean tryHalfOpen() {
+        if (state != State.OPEN) {
+            return false;
+        }
+        state = State.HALF_OPEN;
+        return true;
+    }
+
+    /**
+     * 记录探测结果：成功时关闭并清空窗口，失败时重新打开
+     */
+    public synchronized void onProbe(boolean success, long latencyNanos) {
+        if (state != State.HALF_OPEN) {
+            return;
+        }
+        if (success && latencyNanos <= slowCallNanos) {
+            count = 0;
+            next = 0;
+            bad = 0;
+            state = State.CLOSED;
+        } else {
+            state = State.OPEN;
+        }
+    }
+}
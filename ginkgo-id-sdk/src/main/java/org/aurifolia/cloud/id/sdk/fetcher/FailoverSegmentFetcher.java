@@ -0,0 +1,206 @@
+package org.aurifolia.cloud.id.sdk.fetcher;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 多通道故障转移号段获取器
+ * <p>
+ * 按顺序尝试各通道（如Dubbo RPC、HTTP），每个通道有独立的熔断器：
+ * 熔断打开的通道直接跳过，不产生任何网络调用；调用失败、返回空或超过callTimeout未返回时转到下一个通道。
+ * 超时后才返回的号段已属于本实例，放入盈余队列供下次获取使用。
+ * 熔断器打开后每隔probeInterval在后台用一次真实获取探测该通道，成功则关闭熔断器，探测得到的号段同样放入盈余队列。
+ * 所有通道都不可用时立即返回空数组，由生成器按降级策略处理。
+ *
+ * @author Peng Dan
+ * @since 2.0
+ */
+@Slf4j
+public class FailoverSegmentFetcher extends AbstractSegmentFetcher {
+
+    private static final long[] EMPTY = new long[0];
+
+    /**
+     * 一个获取通道；熔断器只统计本业务标签在该通道上的调用，
+     * 一个标签的业务错误（如标签不存在）不会使其他标签跳过该通道
+     *
+     * @param name    通道名，用于日志
+     * @param fetcher 通道的号段获取器
+     * @param breaker 通道的熔断器
+     */
+    public record Transport(String name, SegmentFetcher fetcher, CircuitBreaker breaker) {
+    }
+
+    private final List<Transport> transports;
+    private final long callTimeoutNanos;
+    private final long probeIntervalNanos;
+    private final SurplusSegments surplus = new SurplusSegments();
+    private final LongAdder skippedCalls = new LongAdder();
+    private final LongAdder failovers = new LongAdder();
+
+    /**
+     * @param transports          按优先级排列的通道
+     * @param callTimeoutMillis   单个通道的等待上限（毫秒），超过后转到下一个通道
+     * @param probeIntervalMillis 熔断打开后的探测间隔（毫秒）
+     */
+    public FailoverSegmentFetcher(List<Transport> transports, long callTimeoutMillis, long probeIntervalMillis) {
+        if (transports.isEmpty()) {
+            throw new IllegalArgumentException("transports must not be empty");
+        }
+        this.transports = List.copyOf(transports);
+        this.callTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(callTimeoutMillis);
+        this.probeIntervalNanos = TimeUnit.MILLISECONDS.toNanos(probeIntervalMillis);
+    }
+
+    @Override
+    public Long fetchSegment() {
+        long[] segments = fetchSegmentsAsync(1).join();
+        return segments.length > 0 ? segments[0] : null;
+    }
+
+    @Override
+    public CompletableFuture<long[]> fetchSegmentsAsync(int count) {
+        long[] spare = surplus.poll(count);
+        if (spare != null) {
+            return CompletableFuture.completedFuture(spare);
+        }
+        CompletableFuture<long[]> result = new CompletableFuture<>();
+        tryFrom(0, count, result);
+        return result;
+    }
+
+    @Override
+    public void close() {
+        transports.forEach(transport -> transport.fetcher().close());
+    }
+
+    /**
+     * 因熔断打开而跳过的通道调用次数
+     */
+    public long getSkippedCalls() {
+        return skippedCalls.sum();
+    }
+
+    /**
+     * 从一个通道转到下一个通道的次数
+     */
+    public long getFailovers() {
+        return failovers.sum();
+    }
+
+    /**
+     * 从index开始找第一个熔断器允许的通道发起调用，没有可用通道时以空数组完成
+     */
+    private void tryFrom(int index, int count, CompletableFuture<long[]> result) {
+        for (int i = index; i < transports.size(); i++) {
+            if (transports.get(i).breaker().allowRequest()) {
+                if (i > 0) {
+                    failovers.increment();
+                }
+                call(i, count, result);
+                return;
+            }
+            skippedCalls.increment();
+        }
+        result.complete(EMPTY);
+    }
+
+    /**
+     * 调用第index个通道，失败或超时转到下一个通道
+     */
+    private void call(int index, int count, CompletableFuture<long[]> result) {
+        Transport transport = transports.get(index);
+        callWithTimeout(transport, count, (segments, latencyNanos) -> {
+            if (transport.breaker().onResult(segments != null, latencyNanos)) {
+                log.warn("Circuit breaker opened for segment transport {}", transport.name());
+                scheduleProbe(transport);
+            }
+            if (segments != null) {
+                updateSeqBits(transport.fetcher().seqBits());
+                result.complete(segments);
+            } else {
+                tryFrom(index + 1, count, result);
+            }
+        });
+    }
+
+    /**
+     * probeInterval后发出一次探测获取；探测失败或超时时重新安排
+     */
+    private void scheduleProbe(Transport transport) {
+        CompletableFuture.delayedExecutor(probeIntervalNanos, TimeUnit.NANOSECONDS).execute(() -> {
+            if (!transport.breaker().tryHalfOpen()) {
+                return;
+            }
+            callWithTimeout(transport, 1, (segments, latencyNanos) -> {
+                if (segments != null) {
+                    keepSurplus(transport, segments);
+                }
+                transport.breaker().onProbe(segments != null, latencyNanos);
+                if (transport.breaker().allowRequest()) {
+                    log.info("Circuit breaker closed for segment transport {}", transport.name());
+                } else {
+                    scheduleProbe(transport);
+                }
+            });
+        });
+    }
+
+    /**
+     * 调用通道并最多等待callTimeout：返回和超时谁先发生谁回调outcome（超时按失败处理），
+     * 超时后才返回的号段放入盈余队列。
+     * 计时在调用通道之前开始，通道在调用线程上阻塞时超时照常触发并转到下一个通道。
+     */
+    private void callWithTimeout(Transport transport, int count, Outcome outcome) {
+        AtomicBoolean settled = new AtomicBoolean();
+        long startNanos = System.nanoTime();
+        CompletableFuture.delayedExecutor(callTimeoutNanos, TimeUnit.NANOSECONDS).execute(() -> {
+            if (settled.compareAndSet(false, true)) {
+                log.warn("Segment fetch via {} timed out", transport.name());
+                outcome.settle(null, callTimeoutNanos);
+            }
+        });
+        fetch(transport, count).whenComplete((segments, error) -> {
+            boolean success = error == null && segments != null && segments.length > 0;
+            if (settled.compareAndSet(false, true)) {
+                if (error != null) {
+                    log.warn("Segment fetch via {} failed", transport.name(), error);
+                }
+                outcome.settle(success ? segments : null, System.nanoTime() - startNanos);
+            } else if (success) {
+                keepSurplus(transport, segments);
+            }
+        });
+    }
+
+    private void keepSurplus(Transport transport, long[] segments) {
+        updateSeqBits(transport.fetcher().seqBits());
+        surplus.offer(segments);
+    }
+
+    private static CompletableFuture<long[]> fetch(Transport transport, int count) {
+        try {
+            return transport.fetcher().fetchSegmentsAsync(count);
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * 一次通道调用的结果回调
+     */
+    @FunctionalInterface
+    private interface Outcome {
+
+        /**
+         * @param segments     获取到的号段，失败或超时时为null
+         * @param latencyNanos 调用耗时
+         */
+        void settle(long[] segments, long latencyNanos);
+    }
+}
@@ -0,0 +1,216 @@
+package org.aurifolia.cloud.id.sdk.fetcher;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 多端点对冲号段获取器
+ * <p>
+ * 每次获取先发给p95延迟最低的端点；超过该端点p95仍未返回（或提前失败）时，
+ * 向p95次低的端点发出一次对冲请求，取先返回的结果。
+ * 落败请求分配到的号段全局唯一且已属于本实例，放入盈余队列，下次获取直接返回而不发请求，不会浪费。
+ * 对冲延迟限制在[hedgeDelay, MAX_HEDGE_DELAY]之间；还没有样本的端点p95视为0，优先被选为主请求以积累样本。
+ *
+ * @author Peng Dan
+ * @since 2.0
+ */
+@Slf4j
+public class HedgedSegmentFetcher extends AbstractSegmentFetcher {
+
+    static final double HEDGE_QUANTILE = 0.95;
+    static final long MAX_HEDGE_DELAY_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final List<Endpoint> endpoints;
+    private final long hedgeDelayNanos;
+    private final SurplusSegments surplus = new SurplusSegments();
+    private final LongAdder hedgedRequests = new LongAdder();
+    private final LongAdder hedgeWins = new LongAdder();
+    private final LongAdder surplusSegments = new LongAdder();
+
+    /**
+     * 每个端点使用独立的延迟统计
+     *
+     * @param fetchers         各端点的号段获取器
+     * @param hedgeDelayMillis 对冲延迟下限（毫秒），端点还没有样本时也按该值对冲
+     */
+    public HedgedSegmentFetcher(List<? extends SegmentFetcher> fetchers, long hedgeDelayMillis) {
+        this(fetchers, fetchers.stream().map(f -> new LatencyTracker()).toList(), hedgeDelayMillis);
+    }
+
+    /**
+     * @param fetchers         各端点的号段获取器
+     * @param trackers         与fetchers一一对应的延迟统计，可在多个业务标签间共享
+     * @param hedgeDelayMillis 对冲延迟下限（毫秒），端点还没有样本时也按该值对冲
+     */
+    public HedgedSegmentFetcher(List<? extends SegmentFetcher> fetchers, List<LatencyTracker> trackers,
+                                long hedgeDelayMillis) {
+        if (fetchers.isEmpty() || fetchers.size() != trackers.size()) {
+            throw new IllegalArgumentException("fetchers and trackers must be non-empty and of equal size");
+        }
+        List<Endpoint> list = new ArrayList<>(fetchers.size());
+        for (int i = 0; i < fetchers.size(); i++) {
+            list.add(new Endpoint(fetchers.get(i), trackers.get(i)));
+        }
+        this.endpoints = List.copyOf(list);
+        this.hedgeDelayNanos = TimeUnit.MILLISECONDS.toNanos(hedgeDelayMillis);
+    }
+
+    @Override
+    public Long fetchSegment() {
+        long[] segments = fetchSegmentsAsync(1).join();
+        return segments.length > 0 ? segments[0] : null;
+    }
+
+    @Override
+    public CompletableFuture<long[]> fetchSegmentsAsync(int count) {
+        long[] spare = surplus.poll(count);
+        if (spare != null) {
+            return CompletableFuture.completedFuture(spare);
+        }
+        Endpoint[] ranked = rank();
+        Attempt attempt = new Attempt(count, ranked);
+        attempt.send(ranked[0]);
+        if (ranked.length > 1) {
+            CompletableFuture.delayedExecutor(hedgeDelay(ranked[0]), TimeUnit.NANOSECONDS)
+                    .execute(attempt::hedge);
+        }
+        return attempt.result;
+    }
+
+    @Override
+    public void close() {
+        endpoints.forEach(endpoint -> endpoint.fetcher.close());
+    }
+
+    /**
+     * 发出的对冲请求数
+     */
+    public long getHedgedRequests() {
+        return hedgedRequests.sum();
+    }
+
+    /**
+     * 对冲请求先于主请求返回的次数
+     */
+    public long getHedgeWins() {
+        return hedgeWins.sum();
+    }
+
+    /**
+     * 落败请求放入盈余队列的号段数
+     */
+    public long getSurplusSegments() {
+        return surplusSegments.sum();
+    }
+
+    /**
+     * 按p95从低到高排列端点（插入排序，端点数很少）；先取快照再排序，避免排序期间样本变化
+     */
+    private Endpoint[] rank() {
+        int n = endpoints.size();
+        Endpoint[] ranked = new Endpoint[n];
+        long[] keys = new long[n];
+        for (int i = 0; i < n; i++) {
+            Endpoint endpoint = endpoints.get(i);
+            long key = Math.max(endpoint.tracker.percentile(HEDGE_QUANTILE), 0);
+            int j = i;
+            while (j > 0 && keys[j - 1] > key) {
+                ranked[j] = ranked[j - 1];
+                keys[j] = keys[j - 1];
+                j--;
+            }
+            ranked[j] = endpoint;
+            keys[j] = key;
+        }
+        return ranked;
+    }
+
+    private long hedgeDelay(Endpoint primary) {
+        long p95 = primary.tracker.percentile(HEDGE_QUANTILE);
+        return Math.min(Math.max(p95, hedgeDelayNanos), MAX_HEDGE_DELAY_NANOS);
+    }
+
+    /**
+     * 一次获取：最多一个主请求和一个对冲请求，先返回号段的请求完成result
+     */
+    private final class Attempt {
+
+        final CompletableFuture<long[]> result = new CompletableFuture<>();
+        final int count;
+        final Endpoint[] ranked;
+        final AtomicBoolean hedged = new AtomicBoolean();
+        final AtomicInteger pending = new AtomicInteger();
+
+        Attempt(int count, Endpoint[] ranked) {
+            this.count = count;
+            this.ranked = ranked;
+        }
+
+        /**
+         * 向次优端点发出对冲请求；主请求已完成或已对冲过时不发
+         */
+        void hedge() {
+            if (ranked.length < 2 || result.isDone() || !hedged.compareAndSet(false, true)) {
+                return;
+            }
+            hedgedRequests.increment();
+            send(ranked[1]);
+        }
+
+        void send(Endpoint endpoint) {
+            pending.incrementAndGet();
+            long startNanos = System.nanoTime();
+            CompletableFuture<long[]> future;
+            try {
+                future = endpoint.fetcher.fetchSegmentsAsync(count);
+            } catch (Exception e) {
+                future = CompletableFuture.failedFuture(e);
+            }
+            future.whenComplete((segments, error) -> onComplete(endpoint, segments, error, startNanos));
+        }
+
+        private void onComplete(Endpoint endpoint, long[] segments, Throwable error, long startNanos) {
+            long latencyNanos = System.nanoTime() - startNanos;
+            if (error == null && segments != null && segments.length > 0) {
+                endpoint.tracker.record(latencyNanos);
+                updateSeqBits(endpoint.fetcher.seqBits());
+                if (result.complete(segments)) {
+                    if (endpoint != ranked[0]) {
+                        hedgeWins.increment();
+                    }
+                } else {
+                    surplus.offer(segments);
+                    surplusSegments.add(segments.length);
+                }
+            } else {
+                endpoint.tracker.recordFailure(latencyNanos);
+                if (error != null) {
+                    log.warn("Segment fetch from endpoint failed", error);
+                }
+                // 主请求提前失败时不必等到对冲延迟
+                hedge();
+            }
+            if (pending.decrementAndGet() == 0) {
+                result.complete(new long[0]);
+            }
+        }
+    }
+
+    private static final class Endpoint {
+
+        final SegmentFetcher fetcher;
+        final LatencyTracker tracker;
+
+        Endpoint(SegmentFetcher fetcher, LatencyTracker tracker) {
+            this.fetcher = fetcher;
+            this.tracker = tracker;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package org.aurifolia.cloud.id.sdk.fetcher;
+
+import java.util.Arrays;
+
+/**
+ * 单个服务端点的号段获取延迟统计
+ * <p>
+ * 保留最近WINDOW次获取的耗时，按需计算分位数；失败的获取按FAILURE_PENALTY计入，
+ * 使频繁失败的端点分位数升高、排到后面，随着窗口滑动恢复。
+ * 号段获取频率很低，记录和计算都在锁内完成。同一端点的多个业务标签共享一个实例。
+ *
+ * @author Peng Dan
+ * @since 2.0
+ */
+public final class LatencyTracker {
+
+    static final int WINDOW = 64;
+    static final long FAILURE_PENALTY_NANOS = 10_000_000_000L;
+
+    private final long[] samples = new long[WINDOW];
+    private int count;
+    private int next;
+
+    /**
+     * 记录一次成功获取的耗时
+     */
+    public synchronized void record(long latencyNanos) {
+        samples[next] = latencyNanos;
+        next = (next + 1) % WINDOW;
+        if (count < WINDOW) {
+            count++;
+        }
+    }
+
+    /**
+     * 记录一次失败的获取
+     */
+    public void recordFailure(long latencyNanos) {
+        record(Math.max(latencyNanos, FAILURE_PENALTY_NANOS));
+    }
+
+    /**
+     * 窗口内耗时的分位数
+     *
+     * @param quantile 分位，如0.95
+     * @return 分位数（纳秒），窗口为空时返回-1
+     */
+    public synchronized long percentile(double quantile) {
+        if (count == 0) {
+            return -1;
+        }
+        long[] sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(quantile * count) - 1;
+        return sorted[Math.max(0, Math.min(index, count - 1))];
+    }
+}
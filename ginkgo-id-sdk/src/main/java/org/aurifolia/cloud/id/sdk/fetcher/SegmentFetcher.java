@@ -1,19 +1,67 @@
 package org.aurifolia.cloud.id.sdk.fetcher;
 
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+
 /**
  * 号段获取器接口
  * <p>
- * 从ID服务获取下一个号段编号，由HTTP和RPC两种实现
+ * 从ID服务获取下一个号段编号，由HTTP、RPC和二进制协议等实现
  *
  * @author Peng Dan
  * @since 2.0
  */
 public interface SegmentFetcher {
 
+    /**
+     * 未下发位宽的旧版服务端使用的序列号位宽
+     */
+    int DEFAULT_SEQ_BITS = 20;
+
     /**
      * 从ID服务获取下一个号段编号
      *
      * @return 号段编号，失败时返回null
      */
     Long fetchSegment();
+
+    /**
+     * 异步获取多个号段编号
+     * <p>
+     * 实现应以非阻塞方式发起请求，由I/O完成回调完成返回的Future；
+     * 默认实现在调用线程上逐个调用{@link #fetchSegment()}，遇到失败即停止。
+     *
+     * @param count 期望获取的号段数
+     * @return 完成时包含0~count个号段编号，空数组表示获取失败；也可能异常完成
+     */
+    default CompletableFuture<long[]> fetchSegmentsAsync(int count) {
+        long[] segments = new long[count];
+        int fetched = 0;
+        while (fetched < count) {
+            Long segment = fetchSegment();
+            if (segment == null) {
+                break;
+            }
+            segments[fetched++] = segment;
+        }
+        return CompletableFuture.completedFuture(fetched == count ? segments : Arrays.copyOf(segments, fetched));
+    }
+
+    /**
+     * 业务标签的序列号位宽，号段内可用序列号为[0, 2^seqBits)
+     * <p>
+     * 位宽由服务端在注册业务标签时确定且不可变更；生成器在获取号段成功后读取该值，
+     * 因此实现只需保证获取成功时该值已是服务端下发的位宽。
+     *
+     * @return 序列号位宽，默认{@link #DEFAULT_SEQ_BITS}
+     */
+    default int seqBits() {
+        return DEFAULT_SEQ_BITS;
+    }
+
+    /**
+     * 释放获取器持有的资源（如号段订阅），由生成器关闭或创建失败时调用，之后不再使用该获取器
+     */
+    default void close() {
+    }
 }
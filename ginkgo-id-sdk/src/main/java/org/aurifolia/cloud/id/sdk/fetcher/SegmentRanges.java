@@ -0,0 +1,34 @@
+package org.aurifolia.cloud.id.sdk.fetcher;
+
+/**
+ * 号段区间工具
+ *
+ * @author Peng Dan
+ * @since 2.0
+ */
+public final class SegmentRanges {
+
+    private static final long[] EMPTY = new long[0];
+
+    private SegmentRanges() {
+    }
+
+    /**
+     * 将服务端返回的连续号段区间展开为号段编号数组
+     *
+     * @param maxSegment 区间内最大的号段编号，为null表示获取失败
+     * @param count      区间长度
+     * @return [maxSegment - count + 1, maxSegment]，获取失败时返回空数组
+     */
+    public static long[] expand(Long maxSegment, int count) {
+        if (maxSegment == null || count <= 0) {
+            return EMPTY;
+        }
+        long[] segments = new long[count];
+        long first = maxSegment - count + 1;
+        for (int i = 0; i < count; i++) {
+            segments[i] = first + i;
+        }
+        return segments;
+    }
+}
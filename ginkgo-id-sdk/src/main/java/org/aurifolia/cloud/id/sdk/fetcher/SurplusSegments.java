@@ -0,0 +1,36 @@
+package org.aurifolia.cloud.id.sdk.fetcher;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * 盈余号段队列
+ * <p>
+ * 存放已分配给本实例但没有作为获取结果返回的号段（对冲落败、超时后才返回、后台探测得到的），
+ * 号段全局唯一，下次获取时优先返回，不会产生重复也不会浪费。
+ *
+ * @author Peng Dan
+ * @since 2.0
+ */
+final class SurplusSegments {
+
+    private final ConcurrentLinkedQueue<long[]> queue = new ConcurrentLinkedQueue<>();
+
+    void offer(long[] segments) {
+        queue.offer(segments);
+    }
+
+    /**
+     * 取出最多count个号段，超出部分重新入队
+     *
+     * @return 队列为空时返回null
+     */
+    long[] poll(int count) {
+        long[] segments = queue.poll();
+        if (segments == null || segments.length <= count) {
+            return segments;
+        }
+        queue.offer(Arrays.copyOfRange(segments, count, segments.length));
+        return Arrays.copyOf(segments, count);
+    }
+}
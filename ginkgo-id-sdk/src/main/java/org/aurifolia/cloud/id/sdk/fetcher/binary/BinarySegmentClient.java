@@ -0,0 +1,151 @@
+package org.aurifolia.cloud.id.sdk.fetcher.binary;
+
+import lombok.extern.slf4j.Slf4j;
+import org.aurifolia.cloud.id.sdk.binary.BinarySegmentProtocol;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 二进制号段分配客户端
+ * <p>
+ * 与服务端保持一条长连接，多个业务标签共享。请求写出后不等待响应，可连续发出（流水线），
+ * 由后台读线程按requestId完成对应的future。连接在首次请求时建立，断开后所有在途请求失败，下次请求时重连。
+ *
+ * @author Peng Dan
+ * @since 2.0
+ */
+@Slf4j
+public class BinarySegmentClient implements AutoCloseable {
+
+    private final InetSocketAddress address;
+    private final int connectTimeoutMillis;
+    private final long requestTimeoutMillis;
+    private final AtomicInteger nextRequestId = new AtomicInteger();
+    private final Map<Integer, CompletableFuture<BinarySegmentProtocol.Response>> pending = new ConcurrentHashMap<>();
+    private SocketChannel channel;
+    private volatile boolean closed;
+
+    /**
+     * @param connectTimeoutMillis 建立连接的超时（毫秒）
+     * @param requestTimeoutMillis 单次请求的超时（毫秒）
+     */
+    public BinarySegmentClient(String host, int port, int connectTimeoutMillis, long requestTimeoutMillis) {
+        this.address = new InetSocketAddress(host, port);
+        this.connectTimeoutMillis = connectTimeoutMillis;
+        this.requestTimeoutMillis = requestTimeoutMillis;
+    }
+
+    /**
+     * 请求分配count个连续号段
+     *
+     * @return 服务端响应；连接失败、断开或超时时异常完成
+     */
+    public CompletableFuture<BinarySegmentProtocol.Response> allocate(String bizTag, int count) {
+        int requestId = nextRequestId.incrementAndGet();
+        ByteBuffer frame = BinarySegmentProtocol.encodeRequest(requestId, count, bizTag);
+        CompletableFuture<BinarySegmentProtocol.Response> future = new CompletableFuture<>();
+        try {
+            send(requestId, future, frame);
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        return future.orTimeout(requestTimeoutMillis, TimeUnit.MILLISECONDS)
+                .whenComplete((response, error) -> pending.remove(requestId));
+    }
+
+    @Override
+    public synchronized void close() {
+        closed = true;
+        disconnect(new IOException("Binary segment client closed"));
+    }
+
+    /**
+     * 登记在途请求并写出请求帧；与disconnect互斥，保证登记的请求要么写到当前连接上，要么随连接断开而失败
+     */
+    private synchronized void send(int requestId, CompletableFuture<BinarySegmentProtocol.Response> future,
+                                   ByteBuffer frame) throws IOException {
+        if (closed) {
+            throw new IOException("Binary segment client closed");
+        }
+        SocketChannel current = channel != null ? channel : connect();
+        pending.put(requestId, future);
+        try {
+            while (frame.hasRemaining()) {
+                current.write(frame);
+            }
+        } catch (IOException e) {
+            disconnect(e);
+            throw e;
+        }
+    }
+
+    private SocketChannel connect() throws IOException {
+        SocketChannel opened = SocketChannel.open();
+        try {
+            opened.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            opened.socket().connect(address, connectTimeoutMillis);
+        } catch (IOException e) {
+            opened.close();
+            throw e;
+        }
+        channel = opened;
+        Thread reader = new Thread(() -> readLoop(opened), "ginkgo-id-binary-reader");
+        reader.setDaemon(true);
+        reader.start();
+        return opened;
+    }
+
+    private void readLoop(SocketChannel current) {
+        ByteBuffer in = ByteBuffer.allocate(BinarySegmentProtocol.RESPONSE_SIZE * 256);
+        try {
+            while (true) {
+                if (current.read(in) < 0) {
+                    throw new IOException("Binary segment connection closed by server");
+                }
+                in.flip();
+                while (in.remaining() >= BinarySegmentProtocol.RESPONSE_SIZE) {
+                    BinarySegmentProtocol.Response response = BinarySegmentProtocol.decodeResponse(in);
+                    CompletableFuture<BinarySegmentProtocol.Response> future = pending.remove(response.requestId());
+                    if (future != null) {
+                        future.complete(response);
+                    }
+                }
+                in.compact();
+            }
+        } catch (IOException e) {
+            synchronized (this) {
+                if (channel == current) {
+                    if (!closed) {
+                        log.warn("Binary segment connection to {} lost", address, e);
+                    }
+                    disconnect(e);
+                }
+            }
+        }
+    }
+
+    /**
+     * 关闭当前连接并让所有在途请求失败
+     */
+    private void disconnect(IOException cause) {
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                log.debug("Failed to close binary segment connection", e);
+            }
+            channel = null;
+        }
+        pending.values().forEach(future -> future.completeExceptionally(cause));
+        pending.clear();
+    }
+}
@@ -0,0 +1,51 @@
+package org.aurifolia.cloud.id.sdk.fetcher.binary;
+
+import lombok.extern.slf4j.Slf4j;
+import org.aurifolia.cloud.id.sdk.binary.BinarySegmentProtocol;
+import org.aurifolia.cloud.id.sdk.fetcher.AbstractSegmentFetcher;
+import org.aurifolia.cloud.id.sdk.fetcher.SegmentRanges;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 基于二进制协议的号段获取器
+ * <p>
+ * 一次获取只有一个请求帧和一个16字节响应帧，没有序列化和对象映射；序列号位宽随每次响应下发。
+ * 多个业务标签的获取器共享同一个{@link BinarySegmentClient}连接。
+ *
+ * @author Peng Dan
+ * @since 2.0
+ */
+@Slf4j
+public class BinarySegmentFetcher extends AbstractSegmentFetcher {
+
+    private final BinarySegmentClient client;
+    private final String bizTag;
+
+    public BinarySegmentFetcher(BinarySegmentClient client, String bizTag) {
+        this.client = client;
+        this.bizTag = bizTag;
+    }
+
+    @Override
+    public Long fetchSegment() {
+        long[] segments = fetchSegmentsAsync(1).join();
+        return segments.length > 0 ? segments[0] : null;
+    }
+
+    @Override
+    public CompletableFuture<long[]> fetchSegmentsAsync(int count) {
+        return client.allocate(bizTag, count).handle((response, e) -> {
+            if (e != null) {
+                log.warn("Binary segment fetch exception", e);
+                return SegmentRanges.expand(null, count);
+            }
+            if (!response.isSuccess()) {
+                log.warn("Binary segment fetch failed: bizTag={}, status={}", bizTag, response.status());
+                return SegmentRanges.expand(null, count);
+            }
+            updateSeqBits(response.seqBits());
+            return SegmentRanges.expand(response.maxId(), response.count());
+        });
+    }
+}
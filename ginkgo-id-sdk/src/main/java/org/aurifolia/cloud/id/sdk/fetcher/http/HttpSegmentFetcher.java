@@ -1,26 +1,43 @@
 package org.aurifolia.cloud.id.sdk.fetcher.http;
 
 import lombok.extern.slf4j.Slf4j;
-import org.aurifolia.cloud.id.sdk.fetcher.SegmentFetcher;
+import org.aurifolia.cloud.id.sdk.fetcher.AbstractSegmentFetcher;
+import org.aurifolia.cloud.id.sdk.fetcher.SegmentRanges;
 import org.aurifolia.cloud.id.sdk.http.dto.Result;
 import org.aurifolia.cloud.id.sdk.http.dto.SegmentAllocateRequest;
 import org.aurifolia.cloud.id.sdk.http.dto.SegmentAllocateResponse;
+import org.aurifolia.cloud.id.sdk.http.feign.AsyncIdGeneratorFeignClient;
 import org.aurifolia.cloud.id.sdk.http.feign.IdGeneratorFeignClient;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * 基于OpenFeign的号段获取器
+ * <p>
+ * 同步获取走Feign；配置了异步Feign客户端时，异步批量获取一次请求获取连续多个号段，两者共用同一套Feign配置。
+ * 序列号位宽随每次分配响应下发，旧版服务端不返回时保持默认值。
  *
  * @author Peng Dan
  * @since 2.0
  */
 @Slf4j
-public class HttpSegmentFetcher implements SegmentFetcher {
+public class HttpSegmentFetcher extends AbstractSegmentFetcher {
 
     private final IdGeneratorFeignClient feignClient;
+    private final AsyncIdGeneratorFeignClient asyncClient;
     private final String bizTag;
 
     public HttpSegmentFetcher(IdGeneratorFeignClient feignClient, String bizTag) {
+        this(feignClient, null, bizTag);
+    }
+
+    /**
+     * @param asyncClient 异步Feign客户端，为null时异步获取退化为逐个同步调用
+     */
+    public HttpSegmentFetcher(IdGeneratorFeignClient feignClient, AsyncIdGeneratorFeignClient asyncClient,
+                              String bizTag) {
         this.feignClient = feignClient;
+        this.asyncClient = asyncClient;
         this.bizTag = bizTag;
     }
 
@@ -29,14 +46,37 @@ public class HttpSegmentFetcher implements SegmentFetcher {
         try {
             Result<SegmentAllocateResponse> result =
                     feignClient.allocateSegment(new SegmentAllocateRequest(bizTag));
-            if (result != null && result.isSuccess() && result.getData() != null) {
-                return result.getData().getMaxId();
-            }
-            log.warn("HTTP segment fetch failed: {}", result != null ? result.getMessage() : "null");
-            return null;
+            return toSegment(result);
         } catch (Exception e) {
             log.warn("HTTP segment fetch exception", e);
             return null;
         }
     }
+
+    @Override
+    public CompletableFuture<long[]> fetchSegmentsAsync(int count) {
+        if (asyncClient == null) {
+            return super.fetchSegmentsAsync(count);
+        }
+        return asyncClient.allocateSegment(new SegmentAllocateRequest(bizTag, count))
+                .handle((result, e) -> {
+                    if (e != null) {
+                        log.warn("HTTP async segment fetch exception", e);
+                        return SegmentRanges.expand(null, count);
+                    }
+                    // 旧版服务端忽略count，只分配一个号段
+                    Integer allocated = result != null && result.getData() != null
+                            ? result.getData().getAllocatedCount() : null;
+                    return SegmentRanges.expand(toSegment(result), allocated != null ? allocated : 1);
+                });
+    }
+
+    private Long toSegment(Result<SegmentAllocateResponse> result) {
+        if (result != null && result.isSuccess() && result.getData() != null) {
+            updateSeqBits(result.getData().getSeqBits());
+            return result.getData().getMaxId();
+        }
+        log.warn("HTTP segment fetch failed: {}", result != null ? result.getMessage() : "null");
+        return null;
+    }
 }
@@ -1,20 +1,33 @@
 package org.aurifolia.cloud.id.sdk.fetcher.rpc;
 
 import lombok.extern.slf4j.Slf4j;
-import org.aurifolia.cloud.id.sdk.fetcher.SegmentFetcher;
+import org.apache.dubbo.rpc.RpcException;
+import org.aurifolia.cloud.id.sdk.fetcher.AbstractSegmentFetcher;
+import org.aurifolia.cloud.id.sdk.fetcher.SegmentRanges;
 import org.aurifolia.cloud.id.sdk.rpc.IdMetaService;
+import org.aurifolia.cloud.id.sdk.rpc.dto.SegmentAllocation;
+
+import java.util.concurrent.CompletableFuture;
 
 /**
  * 基于Dubbo RPC的号段获取器
+ * <p>
+ * 一次异步调用获取连续多个号段，序列号位宽随分配结果下发，不再单独查询。
+ * 旧版服务端只提供{@link IdMetaService#nextSegment(String)}：调用返回方法不存在时改为逐个调用旧方法，
+ * 位宽保持{@link #DEFAULT_SEQ_BITS}（旧版服务端只支持默认位宽）。
  *
  * @author Peng Dan
  * @since 2.0
  */
 @Slf4j
-public class RpcSegmentFetcher implements SegmentFetcher {
+public class RpcSegmentFetcher extends AbstractSegmentFetcher {
 
     private final IdMetaService idMetaService;
     private final String bizTag;
+    /**
+     * 服务端不支持allocateSegments时置位，之后只调用nextSegment(String)
+     */
+    private volatile boolean legacyServer;
 
     public RpcSegmentFetcher(IdMetaService idMetaService, String bizTag) {
         this.idMetaService = idMetaService;
@@ -23,11 +36,65 @@ public class RpcSegmentFetcher implements SegmentFetcher {
 
     @Override
     public Long fetchSegment() {
+        if (legacyServer) {
+            try {
+                return idMetaService.nextSegment(bizTag);
+            } catch (Exception e) {
+                log.warn("RPC segment fetch exception", e);
+                return null;
+            }
+        }
+        long[] segments = fetchSegmentsAsync(1).join();
+        return segments.length > 0 ? segments[0] : null;
+    }
+
+    /**
+     * 通过一次Dubbo异步调用获取连续count个号段，不占用调用线程等待响应
+     */
+    @Override
+    public CompletableFuture<long[]> fetchSegmentsAsync(int count) {
+        if (legacyServer) {
+            return super.fetchSegmentsAsync(count);
+        }
+        CompletableFuture<SegmentAllocation> future;
         try {
-            return idMetaService.nextSegment(bizTag);
+            future = idMetaService.allocateSegmentsAsync(bizTag, count);
         } catch (Exception e) {
-            log.warn("RPC segment fetch exception", e);
-            return null;
+            future = CompletableFuture.failedFuture(e);
+        }
+        return future.thenApply(this::toSegments).exceptionallyCompose(e -> {
+            if (isUnsupported(e)) {
+                log.info("Metaserver does not support allocateSegments, falling back to nextSegment: bizTag={}",
+                        bizTag);
+                legacyServer = true;
+                return super.fetchSegmentsAsync(count);
+            }
+            log.warn("RPC async segment fetch exception", e);
+            return CompletableFuture.completedFuture(SegmentRanges.expand(null, count));
+        });
+    }
+
+    private long[] toSegments(SegmentAllocation allocation) {
+        if (allocation == null || allocation.getMaxId() == null) {
+            return SegmentRanges.expand(null, 0);
+        }
+        updateSeqBits(allocation.getSeqBits());
+        return SegmentRanges.expand(allocation.getMaxId(), allocation.getCount());
+    }
+
+    /**
+     * 服务端没有被调用的方法（旧版服务端）
+     */
+    private static boolean isUnsupported(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof RpcException rpc && rpc.getCode() == RpcException.METHOD_NOT_FOUND) {
+                return true;
+            }
+            // 服务端反射调用时抛出的java.lang或Dubbo字节码包中的NoSuchMethodException
+            if (t.getClass().getSimpleName().equals("NoSuchMethodException")) {
+                return true;
+            }
         }
+        return false;
     }
 }
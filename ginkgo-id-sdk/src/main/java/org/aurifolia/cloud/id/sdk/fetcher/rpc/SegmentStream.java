@@ -0,0 +1,146 @@
+package org.aurifolia.cloud.id.sdk.fetcher.rpc;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.dubbo.common.stream.StreamObserver;
+import org.aurifolia.cloud.id.sdk.rpc.IdMetaService;
+import org.aurifolia.cloud.id.sdk.rpc.dto.SegmentDemand;
+import org.aurifolia.cloud.id.sdk.rpc.dto.SegmentPush;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 号段订阅流客户端
+ * <p>
+ * 多个业务标签共享一条{@link IdMetaService#subscribeSegments}双向流，推送按业务标签分发给订阅者。
+ * 流在第一次发出需求时建立；服务端结束或出错时通知全部订阅者（在途额度作废），下次发出需求时重新建立。
+ *
+ * @author Peng Dan
+ * @since 2.0
+ */
+@Slf4j
+public class SegmentStream implements AutoCloseable {
+
+    /**
+     * 单个业务标签的推送接收者
+     */
+    public interface Subscriber {
+
+        /**
+         * 收到推送
+         */
+        void onPush(SegmentPush push);
+
+        /**
+         * 流断开，尚未兑现的额度全部作废
+         */
+        void onReset();
+    }
+
+    private final IdMetaService idMetaService;
+    private final Map<String, Subscriber> subscribers = new ConcurrentHashMap<>();
+    private StreamObserver<SegmentDemand> demands;
+    private long generation;
+    private boolean closed;
+
+    public SegmentStream(IdMetaService idMetaService) {
+        this.idMetaService = idMetaService;
+    }
+
+    /**
+     * 登记业务标签的订阅者，每个业务标签只能有一个
+     */
+    public void subscribe(String bizTag, Subscriber subscriber) {
+        if (subscribers.putIfAbsent(bizTag, subscriber) != null) {
+            throw new IllegalStateException("Segment stream already subscribed: " + bizTag);
+        }
+    }
+
+    /**
+     * 注销业务标签的订阅者，subscriber不是当前订阅者时忽略；之后该业务标签的在途推送被丢弃
+     */
+    public void unsubscribe(String bizTag, Subscriber subscriber) {
+        subscribers.remove(bizTag, subscriber);
+    }
+
+    /**
+     * 为业务标签增加推送额度
+     *
+     * @return 需求已发出时返回true；流无法建立或发送失败时返回false，额度未生效
+     */
+    public synchronized boolean demand(String bizTag, int credits, long idsPerSecond) {
+        if (closed) {
+            return false;
+        }
+        try {
+            if (demands == null) {
+                demands = idMetaService.subscribeSegments(new Receiver(++generation));
+            }
+            demands.onNext(new SegmentDemand(bizTag, credits, idsPerSecond));
+            return true;
+        } catch (Exception e) {
+            log.warn("Failed to send segment demand: bizTag={}", bizTag, e);
+            reset(generation);
+            return false;
+        }
+    }
+
+    /**
+     * 结束订阅流，之后的获取全部改为拉取
+     */
+    @Override
+    public synchronized void close() {
+        closed = true;
+        if (demands != null) {
+            try {
+                demands.onCompleted();
+            } catch (Exception e) {
+                log.debug("Failed to complete segment stream", e);
+            }
+            demands = null;
+            subscribers.values().forEach(Subscriber::onReset);
+        }
+    }
+
+    /**
+     * 丢弃当前流并通知订阅者；streamGeneration不是当前流时忽略（旧流的迟到回调）
+     */
+    private synchronized void reset(long streamGeneration) {
+        if (demands == null || streamGeneration != generation) {
+            return;
+        }
+        demands = null;
+        subscribers.values().forEach(Subscriber::onReset);
+    }
+
+    /**
+     * 接收一条流上的服务端推送
+     */
+    private final class Receiver implements StreamObserver<SegmentPush> {
+
+        private final long streamGeneration;
+
+        Receiver(long streamGeneration) {
+            this.streamGeneration = streamGeneration;
+        }
+
+        @Override
+        public void onNext(SegmentPush push) {
+            Subscriber subscriber = subscribers.get(push.getBizTag());
+            if (subscriber != null) {
+                subscriber.onPush(push);
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            log.warn("Segment stream failed", throwable);
+            reset(streamGeneration);
+        }
+
+        @Override
+        public void onCompleted() {
+            reset(streamGeneration);
+        }
+    }
+}
@@ -0,0 +1,253 @@
+package org.aurifolia.cloud.id.sdk.fetcher.rpc;
+
+import lombok.extern.slf4j.Slf4j;
+import org.aurifolia.cloud.id.sdk.fetcher.AbstractSegmentFetcher;
+import org.aurifolia.cloud.id.sdk.fetcher.SegmentFetcher;
+import org.aurifolia.cloud.id.sdk.fetcher.SegmentRanges;
+import org.aurifolia.cloud.id.sdk.rpc.dto.SegmentPush;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 基于服务端推送的号段获取器
+ * <p>
+ * 通过{@link SegmentStream}订阅业务标签，按本地消耗速率维持一个推送窗口：
+ * 窗口为leadTime内预计消耗的号段数加一，限制在[1, maxWindow]；
+ * 本地就绪号段与已给出未兑现的额度之和低于窗口时补发额度，服务端在额度内提前推送号段。
+ * 获取时直接从就绪号段中取；没有就绪号段但有在途额度时最多等待pushWait，
+ * 超时、流断开或尚未建立订阅时通过拉取获取器按原方式获取，推送只是加速手段，不影响可用性。
+ *
+ * @author Peng Dan
+ * @since 2.0
+ */
+@Slf4j
+public class StreamingSegmentFetcher extends AbstractSegmentFetcher implements SegmentStream.Subscriber {
+
+    static final long RATE_WINDOW_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final SegmentStream stream;
+    private final SegmentFetcher pullFetcher;
+    private final String bizTag;
+    private final long leadTimeNanos;
+    private final int maxWindow;
+    private final long pushWaitMillis;
+    private final ArrayDeque<Long> ready = new ArrayDeque<>();
+    private final List<Waiter> waiters = new ArrayList<>();
+    private int requested;
+    private long rateWindowStart = System.nanoTime();
+    private long takenInWindow;
+    private double segmentsPerSecond;
+    private volatile boolean closed;
+
+    /**
+     * @param stream         共享的号段订阅流，构造时登记本业务标签
+     * @param pullFetcher    拉取获取器，推送不可用时使用
+     * @param leadTimeMillis 提前推送的时间量（毫秒），窗口按该时间内的预计消耗计算
+     * @param maxWindow      窗口上限（号段数）
+     * @param pushWaitMillis 有在途额度时等待推送的最长时间（毫秒）
+     */
+    public StreamingSegmentFetcher(SegmentStream stream, SegmentFetcher pullFetcher, String bizTag,
+                                   long leadTimeMillis, int maxWindow, long pushWaitMillis) {
+        this.stream = stream;
+        this.pullFetcher = pullFetcher;
+        this.bizTag = bizTag;
+        this.leadTimeNanos = TimeUnit.MILLISECONDS.toNanos(leadTimeMillis);
+        this.maxWindow = Math.max(1, maxWindow);
+        this.pushWaitMillis = pushWaitMillis;
+        stream.subscribe(bizTag, this);
+    }
+
+    @Override
+    public Long fetchSegment() {
+        long[] segments = fetchSegmentsAsync(1).join();
+        return segments.length > 0 ? segments[0] : null;
+    }
+
+    @Override
+    public CompletableFuture<long[]> fetchSegmentsAsync(int count) {
+        long[] segments = null;
+        Waiter waiter = null;
+        synchronized (this) {
+            if (!ready.isEmpty()) {
+                segments = take(count);
+            } else if (requested > 0) {
+                waiter = new Waiter(count);
+                waiters.add(waiter);
+            }
+        }
+        replenish();
+        if (segments != null) {
+            return CompletableFuture.completedFuture(segments);
+        }
+        if (waiter == null) {
+            return pull(count);
+        }
+        Waiter pending = waiter;
+        return waiter.future.completeOnTimeout(null, pushWaitMillis, TimeUnit.MILLISECONDS)
+                .thenCompose(pushed -> {
+                    if (pushed != null) {
+                        return CompletableFuture.completedFuture(pushed);
+                    }
+                    forget(pending);
+                    return pull(count);
+                });
+    }
+
+    @Override
+    public void onPush(SegmentPush push) {
+        List<Waiter> served = new ArrayList<>();
+        List<Waiter> failed = List.of();
+        synchronized (this) {
+            if (push.isSuccess()) {
+                requested = Math.max(0, requested - push.getCount());
+                updateSeqBits(push.getSeqBits());
+                for (long segment : SegmentRanges.expand(push.getMaxId(), push.getCount())) {
+                    ready.addLast(segment);
+                }
+                while (!ready.isEmpty() && !waiters.isEmpty()) {
+                    Waiter waiter = waiters.remove(0);
+                    waiter.segments = take(waiter.count);
+                    served.add(waiter);
+                }
+            } else {
+                log.warn("Segment push failed, falling back to pull: bizTag={}", bizTag);
+                requested = 0;
+                failed = drainWaiters();
+            }
+        }
+        for (Waiter waiter : served) {
+            if (!waiter.future.complete(waiter.segments)) {
+                // 等待已超时并转为拉取，号段放回就绪队列
+                giveBack(waiter.segments);
+            }
+        }
+        failed.forEach(waiter -> waiter.future.complete(null));
+        if (push.isSuccess()) {
+            replenish();
+        }
+    }
+
+    /**
+     * 注销订阅并让等待推送的获取转为拉取，同一业务标签之后可以重新创建获取器
+     */
+    @Override
+    public void close() {
+        closed = true;
+        stream.unsubscribe(bizTag, this);
+        onReset();
+        pullFetcher.close();
+    }
+
+    @Override
+    public void onReset() {
+        List<Waiter> failed;
+        synchronized (this) {
+            requested = 0;
+            failed = drainWaiters();
+        }
+        failed.forEach(waiter -> waiter.future.complete(null));
+    }
+
+    /**
+     * 就绪号段与在途额度低于窗口时补发额度；在锁外发送，避免与流的锁形成环
+     */
+    private void replenish() {
+        if (closed) {
+            return;
+        }
+        int deficit;
+        long idsPerSecond;
+        synchronized (this) {
+            int window = (int) Math.min(maxWindow,
+                    (long) Math.ceil(segmentsPerSecond * leadTimeNanos / 1e9) + 1);
+            deficit = window - ready.size() - requested;
+            if (deficit <= 0) {
+                return;
+            }
+            requested += deficit;
+            idsPerSecond = (long) (segmentsPerSecond * (1L << seqBits()));
+        }
+        if (!stream.demand(bizTag, deficit, idsPerSecond)) {
+            synchronized (this) {
+                requested = Math.max(0, requested - deficit);
+            }
+        }
+    }
+
+    /**
+     * 通过拉取获取器获取，拉取到的号段同样计入消耗速率
+     */
+    private CompletableFuture<long[]> pull(int count) {
+        return pullFetcher.fetchSegmentsAsync(count).thenApply(segments -> {
+            if (segments.length > 0) {
+                updateSeqBits(pullFetcher.seqBits());
+            }
+            synchronized (this) {
+                recordTaken(segments.length);
+            }
+            return segments;
+        });
+    }
+
+    /**
+     * 取出最多count个就绪号段并计入消耗速率，调用方持有锁
+     */
+    private long[] take(int count) {
+        int n = Math.min(count, ready.size());
+        long[] segments = new long[n];
+        for (int i = 0; i < n; i++) {
+            segments[i] = ready.pollFirst();
+        }
+        recordTaken(n);
+        return segments;
+    }
+
+    /**
+     * 按RATE_WINDOW统计消耗速率，相邻窗口取平均，调用方持有锁
+     */
+    private void recordTaken(int n) {
+        long now = System.nanoTime();
+        takenInWindow += n;
+        long elapsed = now - rateWindowStart;
+        if (elapsed >= RATE_WINDOW_NANOS) {
+            double current = takenInWindow * 1e9 / elapsed;
+            segmentsPerSecond = segmentsPerSecond == 0 ? current : (segmentsPerSecond + current) / 2;
+            takenInWindow = 0;
+            rateWindowStart = now;
+        }
+    }
+
+    private synchronized void giveBack(long[] segments) {
+        for (int i = segments.length - 1; i >= 0; i--) {
+            ready.addFirst(segments[i]);
+        }
+    }
+
+    private synchronized void forget(Waiter waiter) {
+        waiters.remove(waiter);
+    }
+
+    private List<Waiter> drainWaiters() {
+        List<Waiter> drained = new ArrayList<>(waiters);
+        waiters.clear();
+        return drained;
+    }
+
+    /**
+     * 等待推送的一次获取
+     */
+    private static final class Waiter {
+
+        final int count;
+        final CompletableFuture<long[]> future = new CompletableFuture<>();
+        long[] segments;
+
+        Waiter(int count) {
+            this.count = count;
+        }
+    }
+}
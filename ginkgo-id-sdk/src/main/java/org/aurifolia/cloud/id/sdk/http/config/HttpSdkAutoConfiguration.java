@@ -1,16 +1,28 @@
 package org.aurifolia.cloud.id.sdk.http.config;
 
 import org.aurifolia.cloud.id.sdk.IdGenerator;
+import org.aurifolia.cloud.id.sdk.IdGeneratorRegistry;
+import org.aurifolia.cloud.id.sdk.fetcher.HedgedSegmentFetcher;
+import org.aurifolia.cloud.id.sdk.fetcher.LatencyTracker;
 import org.aurifolia.cloud.id.sdk.fetcher.http.HttpSegmentFetcher;
+import org.aurifolia.cloud.id.sdk.http.feign.AsyncFeignClientFactory;
+import org.aurifolia.cloud.id.sdk.http.feign.AsyncIdGeneratorFeignClient;
 import org.aurifolia.cloud.id.sdk.http.feign.IdGeneratorFeignClient;
-import org.aurifolia.cloud.id.sdk.internal.DegradedIdGenerator;
-import org.aurifolia.cloud.id.sdk.internal.SegmentIdGenerator;
+import org.aurifolia.cloud.id.sdk.internal.GeneratorMetricsFactory;
+import org.aurifolia.cloud.id.sdk.internal.SegmentIdGeneratorOptions;
+import org.aurifolia.cloud.id.sdk.internal.SegmentIdGeneratorRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.cloud.openfeign.EnableFeignClients;
+import org.springframework.cloud.openfeign.FeignClientFactory;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.time.Duration;
+import java.util.List;
+
 /**
  * HTTP SDK自动配置类
  *
@@ -24,13 +36,48 @@ import org.springframework.context.annotation.Configuration;
 public class HttpSdkAutoConfiguration {
 
     /**
-     * 创建基于HTTP的ID生成器Bean
+     * 创建异步Feign客户端工厂Bean，复用IdGeneratorFeignClient的Feign配置
+     */
+    @Bean(destroyMethod = "close")
+    public AsyncFeignClientFactory asyncFeignClientFactory(FeignClientFactory feignClientFactory,
+                                                           IdGeneratorProperties properties) {
+        return new AsyncFeignClientFactory(feignClientFactory,
+                Duration.ofMillis(properties.getFetchTimeoutMillis()));
+    }
+
+    /**
+     * 创建基于HTTP的多业务标签ID生成器注册表Bean，号段预取通过共享的异步Feign客户端发出；
+     * 配置了多个服务地址时，每个业务标签的获取器在各地址间对冲，端点延迟统计在业务标签间共享
      */
     @Bean(destroyMethod = "shutdown")
-    public IdGenerator idGenerator(IdGeneratorFeignClient feignClient,
-                                   IdGeneratorProperties properties) {
-        HttpSegmentFetcher fetcher = new HttpSegmentFetcher(feignClient, properties.getBizTag());
-        DegradedIdGenerator degradedGenerator = new DegradedIdGenerator();
-        return new SegmentIdGenerator(fetcher, degradedGenerator, properties.getDegradeEnabled());
+    public IdGeneratorRegistry idGeneratorRegistry(IdGeneratorFeignClient feignClient,
+                                                   AsyncFeignClientFactory asyncClientFactory,
+                                                   IdGeneratorProperties properties,
+                                                   @Value(IdGeneratorFeignClient.SERVER_URL) String serverUrl,
+                                                   ObjectProvider<GeneratorMetricsFactory> metricsFactory) {
+        SegmentIdGeneratorOptions options = properties.toGeneratorOptions();
+        options.setMetricsFactory(metricsFactory.getIfAvailable());
+        List<String> serverUrls = properties.getServerUrls();
+        if (serverUrls.size() < 2) {
+            AsyncIdGeneratorFeignClient asyncClient = asyncClientFactory.create(
+                    serverUrls.isEmpty() ? serverUrl : serverUrls.get(0));
+            return new SegmentIdGeneratorRegistry(
+                    bizTag -> new HttpSegmentFetcher(feignClient, asyncClient, bizTag), options);
+        }
+        List<AsyncIdGeneratorFeignClient> clients = serverUrls.stream()
+                .map(asyncClientFactory::create)
+                .toList();
+        List<LatencyTracker> trackers = clients.stream().map(c -> new LatencyTracker()).toList();
+        return new SegmentIdGeneratorRegistry(bizTag -> new HedgedSegmentFetcher(
+                clients.stream().map(client -> new HttpSegmentFetcher(feignClient, client, bizTag)).toList(),
+                trackers, properties.getHedgeDelayMillis()), options);
+    }
+
+    /**
+     * 创建默认业务标签的ID生成器Bean，生命周期由注册表管理
+     */
+    @Bean(destroyMethod = "")
+    public IdGenerator idGenerator(IdGeneratorRegistry idGeneratorRegistry, IdGeneratorProperties properties) {
+        return idGeneratorRegistry.forTag(properties.getBizTag());
     }
 }
@@ -1,8 +1,14 @@
 package org.aurifolia.cloud.id.sdk.http.config;
 
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.aurifolia.cloud.id.sdk.config.AbstractIdGeneratorProperties;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * HTTP SDK配置属性
  *
@@ -10,21 +16,23 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
  * @since 2.0
  */
 @Data
+@EqualsAndHashCode(callSuper = true)
+@ToString(callSuper = true)
 @ConfigurationProperties(prefix = "ginkgo.id.sdk.http")
-public class IdGeneratorProperties {
+public class IdGeneratorProperties extends AbstractIdGeneratorProperties {
 
     /**
-     * 业务标签
+     * 异步获取号段的单次请求超时（毫秒），默认5000
      */
-    private String bizTag = "default";
+    private Long fetchTimeoutMillis = 5000L;
 
     /**
-     * 是否启用
+     * 多个ID服务地址，配置两个及以上时启用对冲获取，为空时使用ginkgo.id.server.url
      */
-    private Boolean enabled = false;
+    private List<String> serverUrls = new ArrayList<>();
 
     /**
-     * 是否启用降级模式，默认true
+     * 对冲请求的最小延迟（毫秒），主端点p95更高时按p95对冲，默认10
      */
-    private Boolean degradeEnabled = true;
+    private Long hedgeDelayMillis = 10L;
 }
@@ -19,4 +19,13 @@ public class SegmentAllocateRequest {
      * 业务标签
      */
     private String bizTag;
+
+    /**
+     * 分配的号段数量
+     */
+    private Integer count;
+
+    public SegmentAllocateRequest(String bizTag) {
+        this(bizTag, 1);
+    }
 }
@@ -18,7 +18,7 @@ import java.time.LocalDateTime;
 public class SegmentAllocateResponse {
 
     /**
-     * 自增主键ID
+     * 自增主键ID，仅旧版服务端返回
      */
     private Long id;
 
@@ -33,12 +33,22 @@ public class SegmentAllocateResponse {
     private Long maxId;
 
     /**
-     * 创建时间
+     * 创建时间，仅旧版服务端返回
      */
     private LocalDateTime createTime;
 
     /**
-     * 更新时间
+     * 更新时间，仅旧版服务端返回
      */
     private LocalDateTime updateTime;
+
+    /**
+     * 本次分配的号段数量，分配的区间为[maxId - allocatedCount + 1, maxId]；旧版服务端不返回该字段
+     */
+    private Integer allocatedCount;
+
+    /**
+     * 序列号位宽，号段内可用序列号为[0, 2^seqBits)；旧版服务端不返回该字段，即默认的20位
+     */
+    private Integer seqBits;
 }
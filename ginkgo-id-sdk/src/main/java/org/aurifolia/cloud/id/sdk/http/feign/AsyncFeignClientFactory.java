@@ -0,0 +1,96 @@
+package org.aurifolia.cloud.id.sdk.http.feign;
+
+import feign.AsyncClient;
+import feign.AsyncFeign;
+import feign.Client;
+import feign.Contract;
+import feign.Request;
+import feign.RequestInterceptor;
+import feign.codec.Decoder;
+import feign.codec.Encoder;
+import feign.codec.ErrorDecoder;
+import org.springframework.cloud.openfeign.FeignClientFactory;
+import org.springframework.cloud.openfeign.loadbalancer.FeignBlockingLoadBalancerClient;
+import org.springframework.cloud.openfeign.loadbalancer.RetryableFeignBlockingLoadBalancerClient;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * 异步Feign客户端工厂
+ * <p>
+ * 从IdGeneratorFeignClient的Feign上下文取出底层Client、编解码器、契约和请求拦截器构建AsyncFeign客户端，
+ * 同步与异步调用共用同一套Feign配置。底层Client为阻塞实现，调用在虚拟线程上执行，等待I/O时不占用平台线程。
+ *
+ * @author Peng Dan
+ * @since 2.0
+ */
+public class AsyncFeignClientFactory implements AutoCloseable {
+
+    private final FeignClientFactory feignClientFactory;
+    private final Request.Options options;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    /**
+     * @param feignClientFactory Spring Cloud OpenFeign的客户端上下文工厂
+     * @param requestTimeout     单次请求的连接与读取超时
+     */
+    public AsyncFeignClientFactory(FeignClientFactory feignClientFactory, Duration requestTimeout) {
+        this.feignClientFactory = feignClientFactory;
+        this.options = new Request.Options(requestTimeout, requestTimeout, true);
+    }
+
+    /**
+     * 构建指向指定服务地址的异步客户端
+     *
+     * @param url ID服务地址
+     */
+    public AsyncIdGeneratorFeignClient create(String url) {
+        AsyncFeign.AsyncBuilder<Object> builder = AsyncFeign.builder()
+                .client(new AsyncClient.Default<>(delegateClient(), executor))
+                .encoder(get(Encoder.class))
+                .decoder(get(Decoder.class))
+                .contract(get(Contract.class))
+                .options(options);
+        ErrorDecoder errorDecoder = feignClientFactory.getInstance(IdGeneratorFeignClient.NAME, ErrorDecoder.class);
+        if (errorDecoder != null) {
+            builder.errorDecoder(errorDecoder);
+        }
+        Map<String, RequestInterceptor> interceptors =
+                feignClientFactory.getInstances(IdGeneratorFeignClient.NAME, RequestInterceptor.class);
+        if (interceptors != null) {
+            builder.requestInterceptors(interceptors.values());
+        }
+        return builder.target(AsyncIdGeneratorFeignClient.class, url);
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+
+    /**
+     * 地址已显式指定，与FeignClientFactoryBean一致，去掉负载均衡包装直接使用底层Client
+     */
+    private Client delegateClient() {
+        Client client = feignClientFactory.getInstance(IdGeneratorFeignClient.NAME, Client.class);
+        if (client instanceof FeignBlockingLoadBalancerClient loadBalancerClient) {
+            return loadBalancerClient.getDelegate();
+        }
+        if (client instanceof RetryableFeignBlockingLoadBalancerClient loadBalancerClient) {
+            return loadBalancerClient.getDelegate();
+        }
+        return client != null ? client : new Client.Default(null, null);
+    }
+
+    private <T> T get(Class<T> type) {
+        T instance = feignClientFactory.getInstance(IdGeneratorFeignClient.NAME, type);
+        if (instance == null) {
+            throw new IllegalStateException("No bean of type " + type.getName()
+                    + " found for feign client " + IdGeneratorFeignClient.NAME);
+        }
+        return instance;
+    }
+}
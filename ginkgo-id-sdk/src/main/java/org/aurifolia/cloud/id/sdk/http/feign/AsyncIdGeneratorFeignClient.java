@@ -0,0 +1,29 @@
+package org.aurifolia.cloud.id.sdk.http.feign;
+
+import org.aurifolia.cloud.id.sdk.http.dto.Result;
+import org.aurifolia.cloud.id.sdk.http.dto.SegmentAllocateRequest;
+import org.aurifolia.cloud.id.sdk.http.dto.SegmentAllocateResponse;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * ID生成服务异步Feign客户端
+ * <p>
+ * 与IdGeneratorFeignClient调用同一接口，由AsyncFeignClientFactory按服务地址构建，不经@EnableFeignClients注册
+ *
+ * @author Peng Dan
+ * @since 2.0
+ */
+public interface AsyncIdGeneratorFeignClient {
+
+    /**
+     * 异步分配号段
+     *
+     * @param request 分配请求
+     * @return 分配结果，网络、HTTP状态或解码失败时异常完成
+     */
+    @PostMapping("/api/v1/segment/allocate")
+    CompletableFuture<Result<SegmentAllocateResponse>> allocateSegment(@RequestBody SegmentAllocateRequest request);
+}
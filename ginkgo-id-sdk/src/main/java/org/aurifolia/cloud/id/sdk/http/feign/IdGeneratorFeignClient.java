@@ -13,9 +13,19 @@ import org.springframework.web.bind.annotation.RequestBody;
  * @author Peng Dan
  * @since 2.0
  */
-@FeignClient(name = "ginkgo-id-metaserver", url = "${ginkgo.id.server.url:http://localhost:60101}")
+@FeignClient(name = IdGeneratorFeignClient.NAME, url = IdGeneratorFeignClient.SERVER_URL)
 public interface IdGeneratorFeignClient {
 
+    /**
+     * Feign客户端名称，也是其配置上下文的名称
+     */
+    String NAME = "ginkgo-id-metaserver";
+
+    /**
+     * ID服务地址，须通过ginkgo.id.server.url配置
+     */
+    String SERVER_URL = "${ginkgo.id.server.url}";
+
     /**
      * 分配号段
      *
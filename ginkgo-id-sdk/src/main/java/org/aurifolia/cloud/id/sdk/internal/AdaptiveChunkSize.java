@@ -0,0 +1,53 @@
+package org.aurifolia.cloud.id.sdk.internal;
+
+/**
+ * 自适应序列号块大小
+ * <p>
+ * 基于EMA（指数移动平均）平滑估算两次分配块的间隔，
+ * 目标是每100ms分配一次，间隔过短时块大小翻倍，过长时减半（256~65536）。
+ * 非线程安全，由单一持有者（线程或持有补充锁的线程）调用。
+ *
+ * @author Peng Dan
+ * @since 2.0
+ */
+final class AdaptiveChunkSize {
+
+    static final int INITIAL_CHUNK_SIZE = 4096;
+    static final int MIN_CHUNK_SIZE = 256;
+    static final int MAX_CHUNK_SIZE = 65536;
+    private static final long TARGET_INTERVAL_NANOS = 100_000_000L;
+    private static final long EMA_WEIGHT = 4;
+    private static final long EMA_DIVISOR = EMA_WEIGHT + 1;
+
+    private int chunkSize = INITIAL_CHUNK_SIZE;
+    private long lastAllocTimeNanos = 0;
+    private long emaIntervalNanos = -1;
+
+    /**
+     * 当前块大小
+     */
+    int get() {
+        return chunkSize;
+    }
+
+    /**
+     * 记录一次块分配并调整下一次的块大小
+     */
+    void onAllocated(long now) {
+        if (lastAllocTimeNanos == 0) {
+            lastAllocTimeNanos = now;
+            return;
+        }
+        long intervalNanos = now - lastAllocTimeNanos;
+        lastAllocTimeNanos = now;
+
+        emaIntervalNanos = emaIntervalNanos < 0 ? intervalNanos
+                : (intervalNanos + emaIntervalNanos * EMA_WEIGHT) / EMA_DIVISOR;
+
+        if (emaIntervalNanos < TARGET_INTERVAL_NANOS >> 1) {
+            chunkSize = Math.min(chunkSize << 1, MAX_CHUNK_SIZE);
+        } else if (emaIntervalNanos > TARGET_INTERVAL_NANOS << 1) {
+            chunkSize = Math.max(chunkSize >> 1, MIN_CHUNK_SIZE);
+        }
+    }
+}
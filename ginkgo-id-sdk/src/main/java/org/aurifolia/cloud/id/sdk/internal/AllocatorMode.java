@@ -0,0 +1,25 @@
+package org.aurifolia.cloud.id.sdk.internal;
+
+/**
+ * 序列号分配器模式
+ *
+ * @author Peng Dan
+ * @since 2.0
+ */
+public enum AllocatorMode {
+
+    /**
+     * 自动选择：虚拟线程使用分条分配器，平台线程使用线程本地分配器
+     */
+    AUTO,
+
+    /**
+     * 线程本地分配器（TLAB），适合数量有限、长期存活的平台线程
+     */
+    THREAD_LOCAL,
+
+    /**
+     * 分条分配器，按线程哈希共享若干分配单元，不依赖线程身份，适合虚拟线程
+     */
+    STRIPED
+}
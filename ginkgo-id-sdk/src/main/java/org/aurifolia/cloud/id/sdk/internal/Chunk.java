@@ -8,7 +8,10 @@ package org.aurifolia.cloud.id.sdk.internal;
  */
 final class Chunk {
 
-    long segmentNumber;
+    /**
+     * 块所属号段的ID前缀（序列号为0时的ID），与序列号按位或即得到ID
+     */
+    long prefix;
     long seqStart;
     long seqEnd;
 }
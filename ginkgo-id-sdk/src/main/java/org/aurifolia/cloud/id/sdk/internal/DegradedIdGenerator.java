@@ -9,17 +9,30 @@ import java.util.concurrent.atomic.AtomicLong;
  * 不依赖任何外部服务，使用IP生成machineId，逻辑时钟永不回退。
  * 同一秒序列号耗尽时直接推进到下一秒。
  * ID格式: [0|0|clock(32bit,秒)|machine(10bit)|seq(20bit)]
+ * <p>
+ * 与StripedAllocator相同，线程按身份哈希映射到固定数量的分配单元，单元内的租约通过原子自增分配；
+ * 只有租约耗尽时才读取时钟并CAS共享的clockAndSeq切割下一块（CELL_CHUNK个序列号），
+ * 因此全局CAS和时钟读取都降为每块一次，降级吞吐随核数扩展。
  *
  * @author Peng Dan
  * @since 2.0
  */
 public final class DegradedIdGenerator {
 
+    /**
+     * 单元每次切割的序列号数，每秒最多2^20个序列号即最多4096次切割
+     */
+    private static final int CELL_CHUNK = 256;
+
     private final long machineId;
     private final AtomicLong clockAndSeq = new AtomicLong(0);
+    private final LeaseCell[] cells;
+    private final int mask;
 
     public DegradedIdGenerator() {
         this.machineId = resolveMachineId();
+        this.cells = LeaseCell.stripes(LeaseCell[]::new, LeaseCell::new);
+        this.mask = cells.length - 1;
     }
 
     /**
@@ -28,6 +41,38 @@ public final class DegradedIdGenerator {
      * @return 降级模式ID
      */
     public long nextId() {
+        LeaseCell cell = cells[LeaseCell.probe() & mask];
+        long id = cell.tryNext();
+        return id >= 0 ? id : refill(cell);
+    }
+
+    private long refill(LeaseCell cell) {
+        Chunk chunk = new Chunk();
+        if (!cell.tryLockRefill()) {
+            // 其他线程正在补充该单元，直接从共享序列号取单个ID，不等待
+            reserve(1, chunk);
+            return chunk.prefix | chunk.seqStart;
+        }
+        try {
+            long id = cell.tryNext();
+            if (id >= 0) {
+                return id;
+            }
+            reserve(CELL_CHUNK, chunk);
+            long prefix = chunk.prefix;
+            // 块内第一个序列号留给当前线程，其余发布为新租约
+            cell.lease = new IdLease(prefix, chunk.seqStart + 1, chunk.seqEnd);
+            return prefix | chunk.seqStart;
+        } finally {
+            cell.unlockRefill();
+        }
+    }
+
+    /**
+     * 从共享的clockAndSeq预留当前秒内最多want个连续序列号，结果写入chunk
+     * （prefix为该秒的降级ID前缀，序列号区间[seqStart, seqEnd)）
+     */
+    private void reserve(int want, Chunk chunk) {
         while (true) {
             long current = clockAndSeq.get();
             long clock = current >>> IdFormat.SEQ_BITS;
@@ -35,16 +80,42 @@ public final class DegradedIdGenerator {
 
             long nowSeconds = System.currentTimeMillis() / 1000;
             long newClock = Math.max(nowSeconds, clock);
-            long newSeq = (newClock == clock) ? seq + 1 : 0;
+            long firstSeq = (newClock == clock) ? seq + 1 : 0;
 
-            if (newSeq > IdFormat.MAX_SEQ) {
+            if (firstSeq > IdFormat.MAX_SEQ) {
                 newClock = clock + 1;
-                newSeq = 0;
+                firstSeq = 0;
             }
 
-            long newValue = (newClock << IdFormat.SEQ_BITS) | newSeq;
+            long lastSeq = Math.min(firstSeq + want - 1, IdFormat.MAX_SEQ);
+            long newValue = (newClock << IdFormat.SEQ_BITS) | lastSeq;
             if (clockAndSeq.compareAndSet(current, newValue)) {
-                return IdFormat.composeDegraded(newClock, machineId, newSeq);
+                chunk.prefix = IdFormat.composeDegraded(newClock, machineId, 0);
+                chunk.seqStart = firstSeq;
+                chunk.seqEnd = lastSeq + 1;
+                return;
+            }
+        }
+    }
+
+    /**
+     * 批量生成降级模式ID，写入数组的[off, off + len)区间
+     * <p>
+     * 每次CAS预留当前秒内尽可能长的一段连续序列号，而非逐个CAS
+     *
+     * @param dst 目标数组
+     * @param off 起始下标
+     * @param len 生成数量
+     */
+    public void nextIds(long[] dst, int off, int len) {
+        Chunk chunk = new Chunk();
+        int pos = off;
+        int end = off + len;
+        while (pos < end) {
+            reserve(end - pos, chunk);
+            long prefix = chunk.prefix;
+            for (long seq = chunk.seqStart; seq < chunk.seqEnd; seq++) {
+                dst[pos++] = prefix | seq;
             }
         }
     }
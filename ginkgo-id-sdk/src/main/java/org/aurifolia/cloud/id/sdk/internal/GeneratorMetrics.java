@@ -0,0 +1,54 @@
+package org.aurifolia.cloud.id.sdk.internal;
+
+/**
+ * 号段ID生成器指标记录器
+ * <p>
+ * 只在低频事件上回调：号段获取完成、槽位切换自旋结束、分配器切割新块、退出降级模式。
+ * 逐个ID的计数由生成器内的LongAdder按块累加，指标系统按需读取，不经过记录器。
+ *
+ * @author Peng Dan
+ * @since 2.0
+ */
+public interface GeneratorMetrics {
+
+    /**
+     * 不记录任何指标
+     */
+    GeneratorMetrics NOOP = new GeneratorMetrics() {
+    };
+
+    /**
+     * 一次号段获取完成
+     *
+     * @param latencyNanos 获取耗时（纳秒）
+     * @param success      是否获取到号段
+     */
+    default void recordFetch(long latencyNanos, boolean success) {
+    }
+
+    /**
+     * 调用方在槽位切换（STATE_SWITCHING）期间自旋的时间
+     */
+    default void recordSwitchSpin(long spinNanos) {
+    }
+
+    /**
+     * TLAB或分条分配单元切割了一个新块
+     */
+    default void recordChunkSize(int chunkSize) {
+    }
+
+    /**
+     * 一次降级模式结束
+     *
+     * @param durationNanos 降级持续时间（纳秒）
+     */
+    default void recordDegraded(long durationNanos) {
+    }
+
+    /**
+     * 生成器关闭，移除为该生成器注册的指标
+     */
+    default void close() {
+    }
+}
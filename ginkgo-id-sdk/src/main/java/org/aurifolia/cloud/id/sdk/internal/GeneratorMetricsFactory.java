@@ -0,0 +1,23 @@
+package org.aurifolia.cloud.id.sdk.internal;
+
+/**
+ * 指标记录器工厂，生成器构造完成后按业务标签调用一次
+ * <p>
+ * 实现可在此注册读取生成器累计计数（如{@link SegmentIdGenerator#getIssuedIds()}）的指标，
+ * 并在记录器的{@link GeneratorMetrics#close()}中移除
+ *
+ * @author Peng Dan
+ * @since 2.0
+ */
+@FunctionalInterface
+public interface GeneratorMetricsFactory {
+
+    /**
+     * 为生成器创建指标记录器
+     *
+     * @param bizTag    业务标签（独立创建的生成器为default）
+     * @param generator 生成器，已完成初始化
+     * @return 指标记录器
+     */
+    GeneratorMetrics create(String bizTag, SegmentIdGenerator generator);
+}
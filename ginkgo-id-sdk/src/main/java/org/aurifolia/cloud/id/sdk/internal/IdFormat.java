@@ -3,8 +3,11 @@ package org.aurifolia.cloud.id.sdk.internal;
 /**
  * ID位格式工具
  * <p>
- * 正常模式: [符号位(1bit,0) | 标识位(1bit,1) | 号段编号(42bit) | 序列号(20bit)]
+ * 正常模式: [符号位(1bit,0) | 标识位(1bit,1) | 号段编号(62-seqBits bit) | 序列号(seqBits bit)]
  * 降级模式: [符号位(1bit,0) | 标识位(1bit,0) | 逻辑时钟(32bit,秒) | 机器标识(10bit) | 序列号(20bit)]
+ * <p>
+ * 正常模式的序列号位宽由服务端按业务标签下发（默认20位），同一标签注册后不可变更，
+ * 因此同一标签内的ID不会因位宽不同而冲突；降级模式固定使用20位序列号。
  *
  * @author Peng Dan
  * @since 2.0
@@ -14,9 +17,10 @@ final class IdFormat {
     static final int SEQ_BITS = 20;
     static final long MAX_SEQ = (1L << SEQ_BITS) - 1;
 
-    static final int SEGMENT_BITS = 42;
-    static final long SEGMENT_MASK = (1L << SEGMENT_BITS) - 1;
-    static final long NORMAL_FLAG = 1L << (SEQ_BITS + SEGMENT_BITS);
+    static final int MIN_SEQ_BITS = 8;
+    static final int MAX_SEQ_BITS = 30;
+    static final int PAYLOAD_BITS = 62;
+    static final long NORMAL_FLAG = 1L << PAYLOAD_BITS;
 
     static final int DEGRADED_MACHINE_BITS = 10;
     static final long DEGRADED_MAX_MACHINE = (1L << DEGRADED_MACHINE_BITS) - 1;
@@ -27,9 +31,25 @@ final class IdFormat {
 
     /**
      * 组装正常模式ID
+     *
+     * @param seqBits 序列号位宽，号段编号占用剩余的62 - seqBits位
+     */
+    static long composeNormal(long segmentNumber, long sequence, int seqBits) {
+        long segmentMask = (1L << (PAYLOAD_BITS - seqBits)) - 1;
+        long seqMask = (1L << seqBits) - 1;
+        return NORMAL_FLAG | ((segmentNumber & segmentMask) << seqBits) | (sequence & seqMask);
+    }
+
+    /**
+     * 校验服务端下发的序列号位宽
+     *
+     * @throws IllegalStateException 位宽超出[MIN_SEQ_BITS, MAX_SEQ_BITS]
      */
-    static long composeNormal(long segmentNumber, long sequence) {
-        return NORMAL_FLAG | ((segmentNumber & SEGMENT_MASK) << SEQ_BITS) | (sequence & MAX_SEQ);
+    static int checkSeqBits(int seqBits) {
+        if (seqBits < MIN_SEQ_BITS || seqBits > MAX_SEQ_BITS) {
+            throw new IllegalStateException("Invalid seqBits: " + seqBits);
+        }
+        return seqBits;
     }
 
     /**
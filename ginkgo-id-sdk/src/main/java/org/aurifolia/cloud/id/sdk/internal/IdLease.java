@@ -0,0 +1,37 @@
+package org.aurifolia.cloud.id.sdk.internal;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * 序列号租约：[cursor, seqEnd)，prefix为号段ID前缀或降级ID前缀，游标原子自增，耗尽后可能越过seqEnd，由读取方判定
+ *
+ * @author Peng Dan
+ * @since 2.0
+ */
+final class IdLease {
+
+    private static final VarHandle CURSOR;
+
+    static {
+        try {
+            CURSOR = MethodHandles.lookup().findVarHandle(IdLease.class, "cursor", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    final long prefix;
+    final long seqEnd;
+    private volatile long cursor;
+
+    IdLease(long prefix, long seqStart, long seqEnd) {
+        this.prefix = prefix;
+        this.seqEnd = seqEnd;
+        this.cursor = seqStart;
+    }
+
+    long next() {
+        return (long) CURSOR.getAndAdd(this, 1L);
+    }
+}
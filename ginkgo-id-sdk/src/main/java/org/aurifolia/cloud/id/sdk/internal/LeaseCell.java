@@ -0,0 +1,81 @@
+package org.aurifolia.cloud.id.sdk.internal;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+/**
+ * 分配单元：租约引用和补充标志
+ * <p>
+ * StripedAllocator与DegradedIdGenerator共用：线程按身份哈希映射到固定数量的单元，
+ * 从单元的租约原子自增取ID，租约耗尽时只有抢到补充标志的线程发布新租约。
+ *
+ * @author Peng Dan
+ * @since 2.0
+ */
+class LeaseCell {
+
+    private static final int MAX_CELLS = 256;
+
+    private static final VarHandle REFILLING;
+
+    static {
+        try {
+            REFILLING = MethodHandles.lookup().findVarHandle(LeaseCell.class, "refilling", int.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    volatile IdLease lease;
+    private volatile int refilling;
+
+    /**
+     * 创建约为CPU数2倍的单元（2的幂，最多256个）
+     */
+    static <C extends LeaseCell> C[] stripes(IntFunction<C[]> arrayFactory, Supplier<C> cellFactory) {
+        int target = Math.min(Runtime.getRuntime().availableProcessors() * 2, MAX_CELLS);
+        int size = 1;
+        while (size < target) {
+            size <<= 1;
+        }
+        C[] cells = arrayFactory.apply(size);
+        for (int i = 0; i < size; i++) {
+            cells[i] = cellFactory.get();
+        }
+        return cells;
+    }
+
+    /**
+     * 当前线程的哈希，与单元数减一相与得到单元下标
+     */
+    static int probe() {
+        int h = System.identityHashCode(Thread.currentThread());
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * 从当前租约取下一个ID
+     *
+     * @return ID值，没有租约或租约已耗尽时返回-1
+     */
+    long tryNext() {
+        IdLease current = lease;
+        if (current != null) {
+            long seq = current.next();
+            if (seq < current.seqEnd) {
+                return current.prefix | seq;
+            }
+        }
+        return -1;
+    }
+
+    boolean tryLockRefill() {
+        return refilling == 0 && REFILLING.compareAndSet(this, 0, 1);
+    }
+
+    void unlockRefill() {
+        REFILLING.setRelease(this, 0);
+    }
+}
@@ -0,0 +1,180 @@
+package org.aurifolia.cloud.id.sdk.internal;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * 号段租约检查点
+ * <p>
+ * 读取环形缓冲持有的号段及序列号，加上安全余量后作为高水位写入租约日志；重启时从高水位恢复环形缓冲。
+ * 高水位是硬上界：落盘完成后才把各槽位的可发放上界提高到高水位，切割越过上界前由切割线程同步写入检查点，
+ * 因此发放出去的序列号一定低于日志中的高水位，崩溃恢复后不会重复发放。
+ * 余量决定强制检查点的频率，取配置的最小余量与上一周期切割量4倍中的较大者，
+ * 并按槽位顺序分摊：靠后的槽位只有在前面槽位耗尽后才会被切割，只分到前面槽位剩余容量之外的余量。
+ * 高水位不低于槽位当前的上界，已落盘的承诺不会被后续记录撤回；
+ * 移出缓冲的槽位在一条不含它的记录落盘后不会再被恢复，其上界放开到号段容量。
+ * 非线程安全，由持有者串行调用。
+ *
+ * @author Peng Dan
+ * @since 2.0
+ */
+final class LeaseCheckpointer {
+
+    private static final long MARGIN_FACTOR = 4;
+
+    private final LeaseJournal journal;
+    private final SegmentBuffer buffer;
+    private final long minMargin;
+    private final SegmentSlot[] slots = new SegmentSlot[LeaseJournal.MAX_ENTRIES];
+    private final long[] segmentNumbers = new long[LeaseJournal.MAX_ENTRIES];
+    private final long[] sequences = new long[LeaseJournal.MAX_ENTRIES];
+    private final long[] highWaters = new long[LeaseJournal.MAX_ENTRIES];
+    private final SegmentSlot[] lastSlots = new SegmentSlot[LeaseJournal.MAX_ENTRIES];
+    private final long[] lastSegmentNumbers = new long[LeaseJournal.MAX_ENTRIES];
+    private final long[] lastSequences = new long[LeaseJournal.MAX_ENTRIES];
+    private int lastCount;
+    private long margin;
+    private boolean closed;
+
+    /**
+     * 创建检查点并为环形缓冲启用租约，须在缓冲初始化之前调用
+     */
+    LeaseCheckpointer(LeaseJournal journal, SegmentBuffer buffer, long minMargin) {
+        this.journal = journal;
+        this.buffer = buffer;
+        this.minMargin = minMargin;
+        this.margin = minMargin;
+        buffer.enableLeases();
+    }
+
+    /**
+     * 从租约日志恢复环形缓冲，只保留高水位之后仍有剩余序列号的号段
+     *
+     * @return 恢复了至少一个可用号段返回true
+     */
+    boolean restore() {
+        int count = journal.recover(segmentNumbers, highWaters);
+        int seqBits = journal.recoveredSeqBits();
+        long maxSeq = (1L << seqBits) - 1;
+        int usable = 0;
+        for (int i = 0; i < count; i++) {
+            if (highWaters[i] < maxSeq) {
+                segmentNumbers[usable] = segmentNumbers[i];
+                sequences[usable] = highWaters[i];
+                usable++;
+            }
+        }
+        if (usable == 0) {
+            return false;
+        }
+        buffer.restore(segmentNumbers, sequences, usable, seqBits);
+        remember(buffer.snapshot(slots, segmentNumbers, sequences));
+        return true;
+    }
+
+    /**
+     * 记录一次检查点并强制刷盘，落盘后提高各槽位的可发放上界
+     *
+     * @throws IllegalStateException 日志已关闭
+     */
+    void checkpoint() {
+        if (closed) {
+            throw new IllegalStateException("Lease journal is closed");
+        }
+        int seqBits = buffer.seqBits;
+        long seqLimit = 1L << seqBits;
+        int count = buffer.snapshot(slots, segmentNumbers, sequences);
+        margin = Math.max(minMargin, Math.max(carvedSinceLast(count, seqLimit) * MARGIN_FACTOR, margin >> 1));
+        long budget = margin;
+        for (int i = 0; i < count; i++) {
+            long extra = Math.min(budget, Math.max(seqLimit - sequences[i], 0));
+            highWaters[i] = Math.max(sequences[i] + extra, Math.min(slots[i].limit, seqLimit));
+            budget -= extra;
+        }
+        journal.write(segmentNumbers, highWaters, count, seqBits);
+        for (int i = 0; i < count; i++) {
+            slots[i].raiseLimit(highWaters[i]);
+        }
+        for (int i = 0; i < lastCount; i++) {
+            if (!contains(slots, count, lastSlots[i])) {
+                release(lastSlots[i]);
+            }
+        }
+        remember(count);
+    }
+
+    /**
+     * 最近一次落盘的记录是否包含该槽位
+     */
+    boolean covers(SegmentSlot slot) {
+        return contains(lastSlots, lastCount, slot);
+    }
+
+    /**
+     * 放开已移出缓冲的槽位的上界：最近一次落盘的记录不含该槽位，重启时不会恢复它
+     */
+    void release(SegmentSlot slot) {
+        slot.raiseLimit(slot.maxSeq + 1);
+    }
+
+    void close() throws IOException {
+        closed = true;
+        journal.close();
+    }
+
+    LeaseJournal getJournal() {
+        return journal;
+    }
+
+    /**
+     * 估算自上次检查点以来切割的序列号数量：仍持有的号段按序列号差值计，已移出缓冲的号段按剩余容量计
+     */
+    private long carvedSinceLast(int count, long seqLimit) {
+        long carved = 0;
+        for (int i = 0; i < count; i++) {
+            int last = indexOfLast(segmentNumbers[i]);
+            carved += last < 0 ? sequences[i] : Math.max(sequences[i] - lastSequences[last], 0);
+        }
+        for (int i = 0; i < lastCount; i++) {
+            if (indexOf(lastSegmentNumbers[i], count) < 0) {
+                carved += Math.max(seqLimit - lastSequences[i], 0);
+            }
+        }
+        return carved;
+    }
+
+    private void remember(int count) {
+        System.arraycopy(slots, 0, lastSlots, 0, count);
+        Arrays.fill(lastSlots, count, lastSlots.length, null);
+        System.arraycopy(segmentNumbers, 0, lastSegmentNumbers, 0, count);
+        System.arraycopy(sequences, 0, lastSequences, 0, count);
+        lastCount = count;
+    }
+
+    private static boolean contains(SegmentSlot[] held, int count, SegmentSlot slot) {
+        for (int i = 0; i < count; i++) {
+            if (held[i] == slot) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int indexOfLast(long segmentNumber) {
+        for (int i = 0; i < lastCount; i++) {
+            if (lastSegmentNumbers[i] == segmentNumber) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private int indexOf(long segmentNumber, int count) {
+        for (int i = 0; i < count; i++) {
+            if (segmentNumbers[i] == segmentNumber) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,184 @@
+package org.aurifolia.cloud.id.sdk.internal;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * 号段租约日志
+ * <p>
+ * 内存映射的小文件，记录生成器持有的号段及每个号段已消费序列号的高水位，
+ * 进程重启时可直接从高水位继续分配，无需网络请求。
+ * 文件包含A/B两条定长记录，按纪元号交替写入并带CRC32校验，写入中途崩溃时仍保留上一条完整记录。
+ * 记录头保存号段的序列号位宽，恢复时按原位布局继续分配，无需先向服务端查询。
+ * 文件持有独占锁，同一日志同时只能被一个生成器使用，避免两个进程从同一高水位分配出重复ID。
+ *
+ * @author Peng Dan
+ * @since 2.0
+ */
+final class LeaseJournal implements AutoCloseable {
+
+    static final int MAX_ENTRIES = SegmentBuffer.CAPACITY;
+
+    private static final int MAGIC = 0x474B4C4B;
+    private static final int HEADER_SIZE = 24;
+    private static final int SEQ_BITS_OFFSET = 16;
+    private static final int ENTRY_SIZE = 16;
+    private static final int CRC_OFFSET = HEADER_SIZE + MAX_ENTRIES * ENTRY_SIZE;
+    private static final int RECORD_SIZE = CRC_OFFSET + 4;
+    private static final String FILE_SUFFIX = ".lease";
+
+    private final Path path;
+    private final FileChannel channel;
+    private final FileLock lock;
+    private final MappedByteBuffer mapped;
+    private long epoch;
+    private int seqBits = IdFormat.SEQ_BITS;
+
+    private LeaseJournal(Path path, FileChannel channel, FileLock lock, MappedByteBuffer mapped) {
+        this.path = path;
+        this.channel = channel;
+        this.lock = lock;
+        this.mapped = mapped;
+    }
+
+    /**
+     * 打开（不存在时创建）指定目录下的租约日志并获取独占锁
+     *
+     * @param directory 日志目录
+     * @param name      日志名（通常为业务标签）
+     * @throws IOException 文件无法打开或已被其他生成器锁定
+     */
+    static LeaseJournal open(Path directory, String name) throws IOException {
+        Files.createDirectories(directory);
+        Path path = directory.resolve(fileName(name));
+        FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            FileLock lock;
+            try {
+                lock = channel.tryLock();
+            } catch (OverlappingFileLockException e) {
+                lock = null;
+            }
+            if (lock == null) {
+                throw new IOException("Lease journal is locked by another generator: " + path);
+            }
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0, 2L * RECORD_SIZE);
+            return new LeaseJournal(path, channel, lock, mapped);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * 读取最新的完整记录
+     *
+     * @param segmentNumbers 输出号段号
+     * @param highWaters     输出各号段的序列号高水位
+     * @return 记录的号段数，没有有效记录时返回0
+     */
+    synchronized int recover(long[] segmentNumbers, long[] highWaters) {
+        int latest = -1;
+        long latestEpoch = -1;
+        for (int record = 0; record < 2; record++) {
+            int offset = record * RECORD_SIZE;
+            if (isValid(offset) && mapped.getLong(offset + 8) > latestEpoch) {
+                latest = offset;
+                latestEpoch = mapped.getLong(offset + 8);
+            }
+        }
+        if (latest < 0) {
+            return 0;
+        }
+        epoch = latestEpoch;
+        seqBits = mapped.getInt(latest + SEQ_BITS_OFFSET);
+        int count = mapped.getInt(latest + 4);
+        for (int i = 0; i < count; i++) {
+            int entry = latest + HEADER_SIZE + i * ENTRY_SIZE;
+            segmentNumbers[i] = mapped.getLong(entry);
+            highWaters[i] = mapped.getLong(entry + 8);
+        }
+        return count;
+    }
+
+    /**
+     * 最近一次recover读到的序列号位宽
+     */
+    synchronized int recoveredSeqBits() {
+        return seqBits;
+    }
+
+    /**
+     * 写入一条新记录（覆盖较旧的一条）并强制刷盘
+     */
+    synchronized void write(long[] segmentNumbers, long[] highWaters, int count, int seqBits) {
+        int entries = Math.min(count, MAX_ENTRIES);
+        epoch++;
+        int offset = (int) (epoch & 1) * RECORD_SIZE;
+        mapped.putInt(offset, MAGIC);
+        mapped.putInt(offset + 4, entries);
+        mapped.putLong(offset + 8, epoch);
+        mapped.putInt(offset + SEQ_BITS_OFFSET, seqBits);
+        mapped.putInt(offset + SEQ_BITS_OFFSET + 4, 0);
+        for (int i = 0; i < entries; i++) {
+            int entry = offset + HEADER_SIZE + i * ENTRY_SIZE;
+            mapped.putLong(entry, segmentNumbers[i]);
+            mapped.putLong(entry + 8, highWaters[i]);
+        }
+        mapped.putInt(offset + CRC_OFFSET, checksum(offset, entries));
+        mapped.force();
+    }
+
+    Path getPath() {
+        return path;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            mapped.force();
+            lock.release();
+        } finally {
+            channel.close();
+        }
+    }
+
+    private boolean isValid(int offset) {
+        if (mapped.getInt(offset) != MAGIC) {
+            return false;
+        }
+        int entries = mapped.getInt(offset + 4);
+        int bits = mapped.getInt(offset + SEQ_BITS_OFFSET);
+        return entries >= 0 && entries <= MAX_ENTRIES
+                && bits >= IdFormat.MIN_SEQ_BITS && bits <= IdFormat.MAX_SEQ_BITS
+                && mapped.getInt(offset + CRC_OFFSET) == checksum(offset, entries);
+    }
+
+    private int checksum(int offset, int entries) {
+        ByteBuffer record = mapped.duplicate();
+        record.position(offset).limit(offset + HEADER_SIZE + entries * ENTRY_SIZE);
+        CRC32 crc = new CRC32();
+        crc.update(record);
+        return (int) crc.getValue();
+    }
+
+    /**
+     * 业务标签转换为安全的文件名，替换过字符时追加哈希避免冲突
+     */
+    private static String fileName(String name) {
+        String safe = name.replaceAll("[^A-Za-z0-9._-]", "_");
+        if (!safe.equals(name)) {
+            safe = safe + "-" + Integer.toHexString(name.hashCode());
+        }
+        return safe + FILE_SUFFIX;
+    }
+}
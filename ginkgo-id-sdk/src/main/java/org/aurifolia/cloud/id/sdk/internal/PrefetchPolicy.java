@@ -0,0 +1,72 @@
+package org.aurifolia.cloud.id.sdk.internal;
+
+/**
+ * 号段预取深度策略
+ * <p>
+ * 根据号段消耗速率和号段获取延迟计算需要提前排队的号段数量：
+ * 深度 = ceil(获取延迟峰值 / 单个号段寿命) + 1，限制在[1, maxDepth]之间。
+ * 号段寿命使用EMA平滑；获取延迟取衰减峰值（每次获取衰减1/8），
+ * 一次慢获取会在之后较长时间内保持较深的预取，以扛住延迟尖刺。
+ *
+ * @author Peng Dan
+ * @since 2.0
+ */
+final class PrefetchPolicy {
+
+    static final int MIN_DEPTH = 1;
+
+    private static final long EMA_WEIGHT = 4;
+    private static final long EMA_DIVISOR = EMA_WEIGHT + 1;
+    private static final int PEAK_DECAY_SHIFT = 3;
+
+    private final int maxDepth;
+
+    private long lastSwitchNanos = 0;
+    private volatile long emaLifetimeNanos = -1;
+    private volatile long peakFetchNanos = 0;
+    private volatile int targetDepth = MIN_DEPTH;
+
+    PrefetchPolicy(int maxDepth) {
+        this.maxDepth = maxDepth;
+    }
+
+    /**
+     * 记录一次号段切换（仅由持有切换状态的线程调用）
+     */
+    void onSwitch(long nowNanos) {
+        if (lastSwitchNanos == 0) {
+            lastSwitchNanos = nowNanos;
+            return;
+        }
+        long lifetimeNanos = nowNanos - lastSwitchNanos;
+        lastSwitchNanos = nowNanos;
+        long ema = emaLifetimeNanos;
+        emaLifetimeNanos = ema < 0 ? lifetimeNanos : (lifetimeNanos + ema * EMA_WEIGHT) / EMA_DIVISOR;
+        updateTargetDepth();
+    }
+
+    /**
+     * 记录一次号段获取耗时，失败的获取同样计入（仅由获取线程调用）
+     */
+    void onFetchCompleted(long latencyNanos) {
+        long decayed = peakFetchNanos - (peakFetchNanos >> PEAK_DECAY_SHIFT);
+        peakFetchNanos = Math.max(latencyNanos, decayed);
+        updateTargetDepth();
+    }
+
+    /**
+     * 当前目标预取深度（活跃槽位之后排队的号段数）
+     */
+    int targetDepth() {
+        return targetDepth;
+    }
+
+    private void updateTargetDepth() {
+        long lifetime = emaLifetimeNanos;
+        if (lifetime <= 0) {
+            return;
+        }
+        long depth = (peakFetchNanos + lifetime - 1) / lifetime + 1;
+        targetDepth = (int) Math.max(MIN_DEPTH, Math.min(depth, maxDepth));
+    }
+}
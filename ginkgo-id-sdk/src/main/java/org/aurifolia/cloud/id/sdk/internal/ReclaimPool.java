@@ -0,0 +1,57 @@
+package org.aurifolia.cloud.id.sdk.internal;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * 回收序列号池
+ * <p>
+ * 存放从退出或空闲的线程本地分配器回收的序列号区间（无锁队列），
+ * 分配新块时优先从池中取用，取不完的部分重新入队。
+ * 区间属于已分配给本实例的号段，号段全局唯一，因此跨号段复用不会产生重复ID。
+ *
+ * @author Peng Dan
+ * @since 2.0
+ */
+final class ReclaimPool {
+
+    private final ConcurrentLinkedQueue<Range> ranges = new ConcurrentLinkedQueue<>();
+
+    void offer(long prefix, long seqStart, long seqEnd) {
+        ranges.offer(new Range(prefix, seqStart, seqEnd));
+    }
+
+    /**
+     * 从池中取出最多maxSize个序列号
+     *
+     * @param maxSize 请求的序列号块大小
+     * @param chunk   输出对象，取用成功时填充其字段
+     * @return 池为空时返回false
+     */
+    boolean poll(int maxSize, Chunk chunk) {
+        Range range = ranges.poll();
+        if (range == null) {
+            return false;
+        }
+        long end = Math.min(range.seqStart + maxSize, range.seqEnd);
+        if (end < range.seqEnd) {
+            ranges.offer(new Range(range.prefix, end, range.seqEnd));
+        }
+        chunk.prefix = range.prefix;
+        chunk.seqStart = range.seqStart;
+        chunk.seqEnd = end;
+        return true;
+    }
+
+    private static final class Range {
+
+        final long prefix;
+        final long seqStart;
+        final long seqEnd;
+
+        Range(long prefix, long seqStart, long seqEnd) {
+            this.prefix = prefix;
+            this.seqStart = seqStart;
+            this.seqEnd = seqEnd;
+        }
+    }
+}
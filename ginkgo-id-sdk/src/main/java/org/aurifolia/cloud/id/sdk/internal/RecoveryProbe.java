@@ -2,16 +2,21 @@ package org.aurifolia.cloud.id.sdk.internal;
 
 import lombok.extern.slf4j.Slf4j;
 
+import java.util.concurrent.Executor;
 import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * 恢复探测器
  * <p>
  * 降级模式下定时探测ID服务是否恢复，恢复后填充双缓冲并退出降级模式。
- * 使用ScheduledExecutorService单线程定时执行，探测间隔5秒。
+ * 使用ScheduledExecutorService定时触发，探测间隔5秒，调度器可由多个生成器共享。
+ * 探测本身（可能阻塞在号段获取上）交给生成器自己的获取线程执行，共享调度线程只负责提交，
+ * 不会因为一个业务标签的慢探测延迟其他生成器的租约检查点；上一次探测未结束时跳过本次。
  *
  * @author Peng Dan
  * @since 2.0
@@ -24,11 +29,25 @@ final class RecoveryProbe {
 
     private final Runnable recoveryAction;
     private final ScheduledExecutorService executor;
+    private final Executor actionExecutor;
+    private final AtomicBoolean probing = new AtomicBoolean();
     private volatile ScheduledFuture<?> probeTask;
 
-    RecoveryProbe(Runnable recoveryAction) {
+    /**
+     * @param executor       定时触发探测的调度器
+     * @param actionExecutor 执行探测动作的线程池
+     */
+    RecoveryProbe(Runnable recoveryAction, ScheduledExecutorService executor, Executor actionExecutor) {
         this.recoveryAction = recoveryAction;
-        this.executor = Executors.newSingleThreadScheduledExecutor(r -> {
+        this.executor = executor;
+        this.actionExecutor = actionExecutor;
+    }
+
+    /**
+     * 创建恢复探测调度器（单个守护线程）
+     */
+    static ScheduledExecutorService newScheduler() {
+        return Executors.newSingleThreadScheduledExecutor(r -> {
             Thread t = new Thread(r, "id-recovery-probe");
             t.setDaemon(true);
             return t;
@@ -57,19 +76,23 @@ final class RecoveryProbe {
         }
     }
 
-    /**
-     * 关闭探测器，释放线程资源
-     */
-    void shutdown() {
-        stop();
-        executor.shutdown();
-    }
-
     private void probe() {
+        if (!probing.compareAndSet(false, true)) {
+            return;
+        }
         try {
-            recoveryAction.run();
-        } catch (Exception e) {
-            log.debug("Recovery probe exception", e);
+            actionExecutor.execute(() -> {
+                try {
+                    recoveryAction.run();
+                } catch (Exception e) {
+                    log.debug("Recovery probe exception", e);
+                } finally {
+                    probing.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // 生成器已关闭
+            probing.set(false);
         }
     }
 }
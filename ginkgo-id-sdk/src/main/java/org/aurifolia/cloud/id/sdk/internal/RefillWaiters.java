@@ -0,0 +1,52 @@
+package org.aurifolia.cloud.id.sdk.internal;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 号段补充等待队列
+ * <p>
+ * 活跃号段耗尽且补充在途时，调用线程挂起在此队列上，号段获取完成后统一唤醒。
+ * 等待方先入队再检查状态，唤醒方先修改状态再遍历队列，保证不会丢失唤醒。
+ *
+ * @author Peng Dan
+ * @since 2.0
+ */
+final class RefillWaiters {
+
+    private final Queue<Thread> waiters = new ConcurrentLinkedQueue<>();
+
+    /**
+     * 挂起当前线程，直到缓冲离开AWAITING_REFILL状态或到达截止时间
+     *
+     * @param buffer        号段缓冲
+     * @param deadlineNanos 截止时间（System.nanoTime()）
+     * @return 缓冲已离开AWAITING_REFILL状态返回true，超时返回false
+     */
+    boolean await(SegmentBuffer buffer, long deadlineNanos) {
+        Thread current = Thread.currentThread();
+        waiters.add(current);
+        try {
+            while (buffer.getStateOpaque() == SegmentBuffer.STATE_AWAITING_REFILL) {
+                long remainingNanos = deadlineNanos - System.nanoTime();
+                if (remainingNanos <= 0) {
+                    return false;
+                }
+                LockSupport.parkNanos(this, remainingNanos);
+            }
+            return true;
+        } finally {
+            waiters.remove(current);
+        }
+    }
+
+    /**
+     * 唤醒所有等待线程（在修改缓冲状态之后调用）
+     */
+    void signalAll() {
+        for (Thread waiter : waiters) {
+            LockSupport.unpark(waiter);
+        }
+    }
+}
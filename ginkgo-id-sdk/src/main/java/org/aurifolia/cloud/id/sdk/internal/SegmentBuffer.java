@@ -4,65 +4,169 @@ import java.lang.invoke.MethodHandles;
 import java.lang.invoke.VarHandle;
 
 /**
- * 号段双缓冲
+ * 号段环形缓冲
  * <p>
- * 维护两个号段槽位，当一个使用完时切换到另一个，同时异步补充新的号段。
- * 使用CAS状态机（NORMAL -> SWITCHING -> NORMAL）保证只有一个线程执行切换。
+ * 维护一个号段槽位环，head指向活跃槽位，(head, tail)之间为已预取排队的号段。
+ * 活跃槽位用完时切换到下一个排队号段，同时异步补充新的号段直到达到预取深度。
+ * 使用CAS状态机（NORMAL -> SWITCHING -> NORMAL）保证只有一个线程推进head；
+ * 排队为空但有获取在途时进入AWAITING_REFILL，由获取完成后恢复为NORMAL。
+ * head仅由持有SWITCHING状态的线程推进，tail仅由号段获取线程推进（单生产者单消费者）。
+ * 每个槽位携带自己的序列号位宽，号段的容量和ID前缀都取自槽位而非全局常量。
+ * <p>
+ * 每次切割都会读取的字段（state、活跃槽位引用）只在切换时写入，与号段获取线程写入的tail、seqBits
+ * 通过继承层次上的填充字段分隔在不同缓存行上，补充号段不会使切割线程缓存的状态失效。
+ * 活跃槽位引用单独缓存，切割时不需要再读取head和slots数组中与队尾相邻的元素。
  *
  * @author Peng Dan
  * @since 2.0
  */
-final class SegmentBuffer {
+final class SegmentBuffer extends SegmentBufferProducerFields {
 
     static final int STATE_NORMAL = 0;
     static final int STATE_SWITCHING = 1;
     static final int STATE_DEGRADED = 2;
+    static final int STATE_AWAITING_REFILL = 3;
+
+    static final int CAPACITY = 128;
+    private static final int MASK = CAPACITY - 1;
 
     private static final VarHandle STATE;
 
     static {
         try {
             STATE = MethodHandles.lookup()
-                    .findVarHandle(SegmentBuffer.class, "state", int.class);
+                    .findVarHandle(SegmentBufferConsumerFields.class, "state", int.class);
         } catch (ReflectiveOperationException e) {
             throw new ExceptionInInitializerError(e);
         }
     }
 
-    volatile SegmentSlot[] slots = new SegmentSlot[2];
-    volatile int activeSlot = 0;
-    volatile int state = STATE_NORMAL;
+    byte p256, p257, p258, p259, p260, p261, p262, p263, p264, p265, p266, p267, p268, p269, p270, p271;
+    byte p272, p273, p274, p275, p276, p277, p278, p279, p280, p281, p282, p283, p284, p285, p286, p287;
+    byte p288, p289, p290, p291, p292, p293, p294, p295, p296, p297, p298, p299, p300, p301, p302, p303;
+    byte p304, p305, p306, p307, p308, p309, p310, p311, p312, p313, p314, p315, p316, p317, p318, p319;
+    byte p320, p321, p322, p323, p324, p325, p326, p327, p328, p329, p330, p331, p332, p333, p334, p335;
+    byte p336, p337, p338, p339, p340, p341, p342, p343, p344, p345, p346, p347, p348, p349, p350, p351;
+    byte p352, p353, p354, p355, p356, p357, p358, p359, p360, p361, p362, p363, p364, p365, p366, p367;
+    byte p368, p369, p370, p371, p372, p373, p374, p375, p376, p377, p378, p379, p380, p381, p382, p383;
 
     /**
-     * 初始化双缓冲
+     * 初始化环形缓冲，第一个号段为活跃槽位，其余排队
      */
-    void init(long seg0, long seg1) {
-        slots[0] = new SegmentSlot(seg0);
-        slots[1] = new SegmentSlot(seg1);
-        activeSlot = 0;
+    void init(int seqBits, long... segmentNumbers) {
+        for (int i = 0; i < segmentNumbers.length; i++) {
+            slots[i] = newSlot(segmentNumbers[i], seqBits, 0);
+        }
+        this.seqBits = seqBits;
+        head = 0;
+        active = slots[0];
+        tail = segmentNumbers.length;
         STATE.setVolatile(this, STATE_NORMAL);
     }
 
     /**
-     * 补充非活跃槽位
+     * 从租约日志恢复环形缓冲，各槽位从记录的序列号继续分配
+     */
+    void restore(long[] segmentNumbers, long[] startSequences, int count, int seqBits) {
+        for (int i = 0; i < count; i++) {
+            slots[i] = newSlot(segmentNumbers[i], seqBits, startSequences[i]);
+        }
+        this.seqBits = seqBits;
+        head = 0;
+        active = slots[0];
+        tail = count;
+        STATE.setVolatile(this, STATE_NORMAL);
+    }
+
+    /**
+     * 启用租约：之后放入环中的槽位在写入检查点之前不可发放（在init/restore之前调用）
+     */
+    void enableLeases() {
+        leased = true;
+    }
+
+    /**
+     * 创建槽位；启用租约时可发放上界从起始序列号开始，由检查点提高
+     */
+    private SegmentSlot newSlot(long segmentNumber, int seqBits, long startSequence) {
+        SegmentSlot slot = new SegmentSlot(segmentNumber, seqBits, startSequence);
+        if (leased) {
+            slot.limit = startSequence;
+        }
+        return slot;
+    }
+
+    /**
+     * 按从活跃槽位到队尾的顺序读取当前持有的槽位及其序列号（弱一致，供租约日志刷盘使用）
+     *
+     * @return 读取的槽位数
+     */
+    int snapshot(SegmentSlot[] heldSlots, long[] segmentNumbers, long[] sequences) {
+        int h = head;
+        int t = tail;
+        int count = 0;
+        for (int i = h; i < t && count < segmentNumbers.length; i++) {
+            SegmentSlot slot = slots[i & MASK];
+            if (slot == null) {
+                continue;
+            }
+            heldSlots[count] = slot;
+            segmentNumbers[count] = slot.segmentNumber;
+            sequences[count] = SegmentSlot.carvedEnd(slot);
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * 当前活跃槽位
+     */
+    SegmentSlot activeSlot() {
+        return active;
+    }
+
+    /**
+     * 活跃槽位之后排队的号段数
+     */
+    int queued() {
+        return tail - head - 1;
+    }
+
+    /**
+     * 将新号段追加到队尾（仅由号段获取线程调用）
+     *
+     * @return 环已满时返回false
      */
-    void refillInactiveSlot(long segmentNumber) {
-        int inactive = 1 - activeSlot;
-        slots[inactive] = new SegmentSlot(segmentNumber);
+    boolean refill(long segmentNumber, int seqBits) {
+        int t = tail;
+        if (t - head >= CAPACITY) {
+            return false;
+        }
+        slots[t & MASK] = newSlot(segmentNumber, seqBits, 0);
+        this.seqBits = seqBits;
+        tail = t + 1;
+        return true;
     }
 
     /**
-     * 尝试切换到另一个槽位
+     * 尝试切换到下一个未耗尽的排队号段（仅由持有SWITCHING状态的线程调用）
      *
-     * @return 切换成功返回true，另一个槽位也已耗尽返回false
+     * @return 切换成功返回true，没有可用的排队号段返回false
      */
     boolean trySwitch() {
-        int current = activeSlot;
-        int next = 1 - current;
-        if (SegmentSlot.getSequenceVolatile(slots[next]) < IdFormat.MAX_SEQ) {
-            activeSlot = next;
-            return true;
+        int h = head;
+        int t = tail;
+        while (t - h > 1) {
+            h++;
+            SegmentSlot slot = slots[h & MASK];
+            if (SegmentSlot.getSequenceVolatile(slot) < slot.maxSeq) {
+                head = h;
+                active = slot;
+                return true;
+            }
         }
+        head = h;
+        active = slots[h & MASK];
         return false;
     }
 
@@ -78,3 +182,63 @@ final class SegmentBuffer {
         STATE.setVolatile(this, value);
     }
 }
+
+/**
+ * 环形缓冲字段之前的填充
+ */
+abstract class SegmentBufferLhsPadding {
+
+    byte p000, p001, p002, p003, p004, p005, p006, p007, p008, p009, p010, p011, p012, p013, p014, p015;
+    byte p016, p017, p018, p019, p020, p021, p022, p023, p024, p025, p026, p027, p028, p029, p030, p031;
+    byte p032, p033, p034, p035, p036, p037, p038, p039, p040, p041, p042, p043, p044, p045, p046, p047;
+    byte p048, p049, p050, p051, p052, p053, p054, p055, p056, p057, p058, p059, p060, p061, p062, p063;
+    byte p064, p065, p066, p067, p068, p069, p070, p071, p072, p073, p074, p075, p076, p077, p078, p079;
+    byte p080, p081, p082, p083, p084, p085, p086, p087, p088, p089, p090, p091, p092, p093, p094, p095;
+    byte p096, p097, p098, p099, p100, p101, p102, p103, p104, p105, p106, p107, p108, p109, p110, p111;
+    byte p112, p113, p114, p115, p116, p117, p118, p119, p120, p121, p122, p123, p124, p125, p126, p127;
+}
+
+/**
+ * 切割线程每次读取、只在切换时写入的字段
+ */
+abstract class SegmentBufferConsumerFields extends SegmentBufferLhsPadding {
+
+    final SegmentSlot[] slots = new SegmentSlot[SegmentBuffer.CAPACITY];
+    volatile int head = 0;
+    volatile int state = SegmentBuffer.STATE_NORMAL;
+    /**
+     * 活跃槽位，与slots[head & MASK]一致，由推进head的线程同时更新
+     */
+    volatile SegmentSlot active;
+}
+
+/**
+ * 分隔切割线程与号段获取线程所写字段的填充
+ */
+abstract class SegmentBufferMidPadding extends SegmentBufferConsumerFields {
+
+    byte p128, p129, p130, p131, p132, p133, p134, p135, p136, p137, p138, p139, p140, p141, p142, p143;
+    byte p144, p145, p146, p147, p148, p149, p150, p151, p152, p153, p154, p155, p156, p157, p158, p159;
+    byte p160, p161, p162, p163, p164, p165, p166, p167, p168, p169, p170, p171, p172, p173, p174, p175;
+    byte p176, p177, p178, p179, p180, p181, p182, p183, p184, p185, p186, p187, p188, p189, p190, p191;
+    byte p192, p193, p194, p195, p196, p197, p198, p199, p200, p201, p202, p203, p204, p205, p206, p207;
+    byte p208, p209, p210, p211, p212, p213, p214, p215, p216, p217, p218, p219, p220, p221, p222, p223;
+    byte p224, p225, p226, p227, p228, p229, p230, p231, p232, p233, p234, p235, p236, p237, p238, p239;
+    byte p240, p241, p242, p243, p244, p245, p246, p247, p248, p249, p250, p251, p252, p253, p254, p255;
+}
+
+/**
+ * 号段获取线程补充时写入的字段
+ */
+abstract class SegmentBufferProducerFields extends SegmentBufferMidPadding {
+
+    volatile int tail = 0;
+    /**
+     * 最近一次放入环中的号段的序列号位宽
+     */
+    volatile int seqBits = IdFormat.SEQ_BITS;
+    /**
+     * 是否启用租约日志，构造生成器时设置
+     */
+    boolean leased;
+}
@@ -2,17 +2,41 @@ package org.aurifolia.cloud.id.sdk.internal;
 
 import lombok.extern.slf4j.Slf4j;
 import org.aurifolia.cloud.id.sdk.IdGenerator;
+import org.aurifolia.cloud.id.sdk.IdRuns;
 import org.aurifolia.cloud.id.sdk.fetcher.SegmentFetcher;
 
+import java.io.IOException;
+import java.nio.LongBuffer;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * 号段ID生成器
  * <p>
- * 核心实现，组合双缓冲、TLAB、降级生成器和恢复探测器。
- * 启动时从ID服务获取2个号段填充双缓冲，每个线程通过TLAB无锁获取ID。
+ * 核心实现，组合号段环形缓冲、TLAB、降级生成器和恢复探测器。
+ * 启动时从ID服务获取2个号段填充缓冲，平台线程通过TLAB无锁获取ID，
+ * 虚拟线程（或显式指定STRIPED模式时）通过分条分配器获取，避免为大量短命线程各自预留号段。
+ * 退出或空闲线程的TLAB剩余序列号由定时回收任务交回回收池，分配新块时优先取用。
+ * 配置租约日志目录后，定期将持有的号段和序列号高水位写入本地日志，重启时直接从日志恢复，无需等待号段获取；
+ * 高水位是发放的硬上界，切割越过已落盘的高水位前同步写入检查点，崩溃恢复不会重复发放。
+ * 后台按PrefetchPolicy根据消耗速率和获取延迟持续预取号段，使排队号段足以覆盖获取延迟尖刺；
+ * 每次预取通过SegmentFetcher.fetchSegmentsAsync一次请求补足差额，获取线程只负责发起请求，不等待响应。
  * 当号段耗尽且无法获取新号段时进入降级模式，使用纯本地Snowflake生成ID。
+ * 发放量、切换次数、降级等累计计数按块记录在LongAdder中，由getXxx方法读取；
+ * 获取延迟、切换自旋等低频事件通过GeneratorMetrics回调。
  *
  * @author Peng Dan
  * @since 2.0
@@ -20,142 +44,569 @@ import java.util.concurrent.Executors;
 @Slf4j
 public class SegmentIdGenerator implements IdGenerator {
 
+    private static final int BULK_SCRATCH_SIZE = 4096;
+    private static final int REFILL_SPIN_TRIES = 128;
+    private static final long NOT_WAITING = -1;
+    private static final String DEFAULT_JOURNAL_NAME = "default";
+    private static final int INITIAL_SEGMENTS = 2;
+    private static final long FETCH_THREAD_KEEP_ALIVE_SECONDS = 60;
+
     private final SegmentFetcher fetcher;
     private final DegradedIdGenerator degradedGenerator;
     private final SegmentBuffer buffer;
+    private final PrefetchPolicy prefetchPolicy;
+    private final AtomicBoolean fetching = new AtomicBoolean(false);
     private final RecoveryProbe recoveryProbe;
     private final ExecutorService fetchExecutor;
+    private final ScheduledExecutorService probeScheduler;
+    private final boolean ownsProbeScheduler;
     private final boolean degradeEnabled;
+    private final long refillWaitTimeoutNanos;
+    private final RefillWaiters refillWaiters = new RefillWaiters();
+    private volatile boolean refillWaitExpired = false;
+    private final LongAdder refillWaitCount = new LongAdder();
+    private final LongAdder refillWaitNanos = new LongAdder();
+    private final LongAdder refillWaitTimeouts = new LongAdder();
 
     private final ThreadLocal<ThreadLocalAllocator> threadLocalAllocator;
+    private final StripedAllocator stripedAllocator;
+    private final AllocatorMode allocatorMode;
+    private final ReclaimPool reclaimPool = new ReclaimPool();
+    private final ConcurrentLinkedQueue<ThreadLocalAllocator> reclaimableAllocators = new ConcurrentLinkedQueue<>();
+    private final boolean reclaimEnabled;
+    private final ScheduledFuture<?> reclaimTask;
+    private final LongAdder reclaimedIds = new LongAdder();
+    private final LeaseCheckpointer checkpointer;
+    private final ScheduledFuture<?> checkpointTask;
+    private final LongAdder leaseExtensions = new LongAdder();
+
+    /**
+     * 构造完成后才替换为工厂创建的记录器，构造失败时不会留下已注册的指标
+     */
+    private volatile GeneratorMetrics metrics = GeneratorMetrics.NOOP;
+    private final LongAdder carvedIds = new LongAdder();
+    private final LongAdder degradedIds = new LongAdder();
+    private final LongAdder segmentSwitches = new LongAdder();
+    private final LongAdder switchSpinNanos = new LongAdder();
+    private final LongAdder degradedEntries = new LongAdder();
+    private final LongAdder degradedNanos = new LongAdder();
+    private final LongAdder wastedIds = new LongAdder();
+    private volatile long degradedSinceNanos = NOT_WAITING;
 
     /**
-     * 构造函数，初始化双缓冲
+     * 构造函数，初始化号段缓冲
      *
      * @param fetcher           号段获取器
      * @param degradedGenerator 降级模式ID生成器
      * @param degradeEnabled    是否启用降级模式
      */
     public SegmentIdGenerator(SegmentFetcher fetcher, DegradedIdGenerator degradedGenerator, boolean degradeEnabled) {
+        this(fetcher, degradedGenerator, degradeOptions(degradeEnabled));
+    }
+
+    /**
+     * 构造函数，初始化号段缓冲
+     *
+     * @param fetcher           号段获取器
+     * @param degradedGenerator 降级模式ID生成器
+     * @param options           生成器选项
+     */
+    public SegmentIdGenerator(SegmentFetcher fetcher, DegradedIdGenerator degradedGenerator,
+                              SegmentIdGeneratorOptions options) {
+        this(fetcher, degradedGenerator, options, RecoveryProbe.newScheduler(), true, DEFAULT_JOURNAL_NAME);
+    }
+
+    /**
+     * 使用共享恢复探测线程的构造函数（供SegmentIdGeneratorRegistry调用），关闭时不释放共享线程；
+     * 号段获取线程始终由生成器独占，一个业务标签的慢获取不会延迟其他业务标签的补充
+     *
+     * @param journalName 租约日志名，通常为业务标签
+     */
+    SegmentIdGenerator(SegmentFetcher fetcher, DegradedIdGenerator degradedGenerator, SegmentIdGeneratorOptions options,
+                       ScheduledExecutorService probeScheduler, String journalName) {
+        this(fetcher, degradedGenerator, options, probeScheduler, false, journalName);
+    }
+
+    private SegmentIdGenerator(SegmentFetcher fetcher, DegradedIdGenerator degradedGenerator,
+                               SegmentIdGeneratorOptions options, ScheduledExecutorService probeScheduler,
+                               boolean ownsProbeScheduler, String journalName) {
         this.fetcher = fetcher;
         this.degradedGenerator = degradedGenerator;
-        this.degradeEnabled = degradeEnabled;
+        this.degradeEnabled = options.isDegradeEnabled();
+        this.refillWaitTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(options.getRefillWaitTimeoutMillis());
         this.buffer = new SegmentBuffer();
-        this.fetchExecutor = Executors.newSingleThreadExecutor(r -> {
-            Thread t = new Thread(r, "id-segment-fetcher");
-            t.setDaemon(true);
-            return t;
-        });
-        this.recoveryProbe = new RecoveryProbe(this::attemptRecovery);
-        this.threadLocalAllocator = ThreadLocal.withInitial(() -> new ThreadLocalAllocator(this));
+        this.prefetchPolicy = new PrefetchPolicy(SegmentBuffer.CAPACITY - 1);
+        this.fetchExecutor = newFetchExecutor(journalName);
+        this.probeScheduler = probeScheduler;
+        this.ownsProbeScheduler = ownsProbeScheduler;
+        this.recoveryProbe = new RecoveryProbe(this::attemptRecovery, probeScheduler, fetchExecutor);
+        this.allocatorMode = options.getAllocatorMode();
+        this.threadLocalAllocator = allocatorMode == AllocatorMode.STRIPED
+                ? null : ThreadLocal.withInitial(this::newThreadLocalAllocator);
+        this.stripedAllocator = allocatorMode == AllocatorMode.THREAD_LOCAL ? null : new StripedAllocator(this);
+        long reclaimIdleMillis = options.getReclaimIdleMillis();
+        this.reclaimEnabled = reclaimIdleMillis > 0 && threadLocalAllocator != null;
 
-        if (!fillBuffer()) {
+        this.checkpointer = openCheckpointer(options, journalName);
+        boolean restored = restoreFromJournal();
+        if (restored) {
+            // 日志高水位含安全余量，崩溃前实际切割到哪里未知，按最小余量估算跳过的序列号
+            wastedIds.add(options.getJournalSafetyMargin());
+        }
+        if (!restored && !fillBuffer()) {
             if (degradeEnabled) {
                 log.warn("Failed to initialize segment buffer, entering degraded mode");
-                buffer.setStateVolatile(SegmentBuffer.STATE_DEGRADED);
-                recoveryProbe.start();
+                enterDegraded();
             } else {
+                closeJournal();
+                fetchExecutor.shutdown();
                 throw new IllegalStateException("Failed to initialize segment buffer and degradation is disabled");
             }
         }
+        // 初始化成功后才在共享调度线程上登记回收任务，构造失败不会留下引用本生成器的定时任务
+        this.reclaimTask = reclaimEnabled
+                ? probeScheduler.scheduleWithFixedDelay(this::reclaimIdleAllocators,
+                        reclaimIdleMillis, reclaimIdleMillis, TimeUnit.MILLISECONDS)
+                : null;
+        if (checkpointer != null) {
+            // 恢复后先落一次检查点再对外服务，保证再次崩溃时不会从同一高水位重复分配
+            checkpointer.checkpoint();
+            long flushMillis = options.getJournalFlushIntervalMillis();
+            this.checkpointTask = probeScheduler.scheduleWithFixedDelay(this::checkpointJournal,
+                    flushMillis, flushMillis, TimeUnit.MILLISECONDS);
+        } else {
+            this.checkpointTask = null;
+        }
+        if (restored) {
+            triggerPrefetch();
+        }
+        if (options.getMetricsFactory() != null) {
+            this.metrics = options.getMetricsFactory().create(journalName, this);
+        }
     }
 
     @Override
     public long nextId() {
-        long id = threadLocalAllocator.get().nextId();
+        long id = useStriped() ? stripedAllocator.nextId() : threadLocalAllocator.get().nextId();
         if (id >= 0) {
             return id;
         }
         if (!degradeEnabled) {
             throw new IllegalStateException("Segment buffer exhausted and degradation is disabled");
         }
+        degradedIds.increment();
         return degradedGenerator.nextId();
     }
 
+    private boolean useStriped() {
+        return allocatorMode == AllocatorMode.STRIPED
+                || (allocatorMode == AllocatorMode.AUTO && Thread.currentThread().isVirtual());
+    }
+
     /**
-     * 从双缓冲中分配一段序列号（供ThreadLocalAllocator调用）
+     * 批量生成ID
+     * <p>
+     * 绕过TLAB直接从活跃槽位按需切割整段序列号，每个号段只需一次原子加，
+     * 跨号段时继续从切换后的槽位切割，进入降级模式后剩余部分由降级生成器批量填充。
+     */
+    @Override
+    public void nextIds(long[] dst, int off, int len) {
+        Objects.checkFromIndexSize(off, len, dst.length);
+        Chunk chunk = new Chunk();
+        int pos = off;
+        int end = off + len;
+        while (pos < end) {
+            if (!allocateChunk(end - pos, chunk)) {
+                if (!degradeEnabled) {
+                    throw new IllegalStateException("Segment buffer exhausted and degradation is disabled");
+                }
+                degradedIds.add(end - pos);
+                degradedGenerator.nextIds(dst, pos, end - pos);
+                return;
+            }
+            long prefix = chunk.prefix;
+            for (long seq = chunk.seqStart; seq < chunk.seqEnd; seq++) {
+                dst[pos++] = prefix | seq;
+            }
+        }
+    }
+
+    /**
+     * 批量生成ID并直接输出切割得到的序列号区间，不展开为数组；
+     * 进入降级模式后剩余部分由降级生成器生成后合并
+     */
+    @Override
+    public long[] nextIdRuns(int count) {
+        IdRuns.Builder runs = new IdRuns.Builder();
+        Chunk chunk = new Chunk();
+        int remaining = count;
+        while (remaining > 0) {
+            if (!allocateChunk(remaining, chunk)) {
+                if (!degradeEnabled) {
+                    throw new IllegalStateException("Segment buffer exhausted and degradation is disabled");
+                }
+                degradedIds.add(remaining);
+                long[] degraded = new long[remaining];
+                degradedGenerator.nextIds(degraded, 0, remaining);
+                for (long id : degraded) {
+                    runs.add(id, 1);
+                }
+                break;
+            }
+            int length = (int) (chunk.seqEnd - chunk.seqStart);
+            runs.add(chunk.prefix | chunk.seqStart, length);
+            remaining -= length;
+        }
+        return runs.build();
+    }
+
+    @Override
+    public void nextIds(LongBuffer dst) {
+        int remaining = dst.remaining();
+        if (dst.hasArray()) {
+            int pos = dst.position();
+            nextIds(dst.array(), dst.arrayOffset() + pos, remaining);
+            dst.position(pos + remaining);
+            return;
+        }
+        long[] scratch = new long[Math.min(remaining, BULK_SCRATCH_SIZE)];
+        while (remaining > 0) {
+            int n = Math.min(remaining, scratch.length);
+            nextIds(scratch, 0, n);
+            dst.put(scratch, 0, n);
+            remaining -= n;
+        }
+    }
+
+    /**
+     * 分配一段序列号（供ThreadLocalAllocator和StripedAllocator调用），优先取用回收池中的序列号，否则从活跃槽位切割
+     * <p>
+     * 切割是对槽位序列号的一次getAndAdd，竞争时不会失败重试；槽位剩余不足chunkSize时返回截断的块。
      *
      * @param chunkSize 请求的序列号块大小
      * @param chunk     输出对象，分配成功时填充其字段
      * @return 分配成功返回true，降级时返回false
      */
     boolean allocateChunk(int chunkSize, Chunk chunk) {
+        if (reclaimPool.poll(chunkSize, chunk)) {
+            return true;
+        }
+        long waitStartNanos = NOT_WAITING;
+        long spinStartNanos = NOT_WAITING;
         while (true) {
             int state = buffer.getStateOpaque();
 
+            if (spinStartNanos != NOT_WAITING && state != SegmentBuffer.STATE_SWITCHING) {
+                recordSwitchSpin(spinStartNanos);
+                spinStartNanos = NOT_WAITING;
+            }
+
             if (state == SegmentBuffer.STATE_DEGRADED) {
+                recordRefillWait(waitStartNanos, false);
                 return false;
             }
 
-            int slotIdx = buffer.activeSlot;
-            SegmentSlot slot = buffer.slots[slotIdx];
+            SegmentSlot slot = buffer.activeSlot();
 
-            while (true) {
-                long seq = SegmentSlot.getSequenceOpaque(slot);
-                if (seq >= IdFormat.MAX_SEQ) {
-                    break;
-                }
-                long newSeq = Math.min(seq + chunkSize, IdFormat.MAX_SEQ + 1);
-                if (SegmentSlot.compareAndSetSequence(slot, seq, newSeq)) {
-                    chunk.segmentNumber = slot.segmentNumber;
+            // 先以普通读判断是否耗尽，等待切换的线程不会反复对已耗尽的槽位执行原子加
+            if (SegmentSlot.getSequenceOpaque(slot) < slot.maxSeq) {
+                long seq = SegmentSlot.getAndAddSequence(slot, chunkSize);
+                if (seq < slot.maxSeq) {
+                    // 越过号段容量的部分直接丢弃，该槽位之后的切割都会判定为耗尽
+                    long seqEnd = Math.min(seq + chunkSize, slot.maxSeq + 1);
+                    if (seqEnd > slot.limit && !extendLease(slot, seqEnd)) {
+                        recordRefillWait(waitStartNanos, false);
+                        return false;
+                    }
+                    chunk.prefix = slot.prefix;
                     chunk.seqStart = seq;
-                    chunk.seqEnd = newSeq;
+                    chunk.seqEnd = seqEnd;
+                    carvedIds.add(seqEnd - seq);
+                    recordRefillWait(waitStartNanos, false);
+                    if (spinStartNanos != NOT_WAITING) {
+                        recordSwitchSpin(spinStartNanos);
+                    }
                     return true;
                 }
             }
 
             if (state == SegmentBuffer.STATE_SWITCHING) {
+                if (spinStartNanos == NOT_WAITING) {
+                    spinStartNanos = System.nanoTime();
+                }
                 Thread.onSpinWait();
                 continue;
             }
 
+            if (state == SegmentBuffer.STATE_AWAITING_REFILL) {
+                if (refillWaitExpired) {
+                    return false;
+                }
+                if (waitStartNanos == NOT_WAITING) {
+                    waitStartNanos = System.nanoTime();
+                }
+                if (!awaitRefill(waitStartNanos + refillWaitTimeoutNanos)) {
+                    refillWaitExpired = true;
+                    recordRefillWait(waitStartNanos, true);
+                    return false;
+                }
+                continue;
+            }
+
             if (buffer.compareAndSetState(SegmentBuffer.STATE_NORMAL, SegmentBuffer.STATE_SWITCHING)) {
-                if (buffer.trySwitch()) {
-                    triggerAsyncFetch();
-                } else {
-                    if (degradeEnabled) {
-                        buffer.setStateVolatile(SegmentBuffer.STATE_DEGRADED);
-                        recoveryProbe.start();
-                        return false;
+                switchSlot();
+            }
+        }
+    }
+
+    /**
+     * 等待在途号段补充：先短暂自旋，再挂起到等待队列，由获取完成时唤醒。
+     * 同一次补充过程中一旦有等待超时，后续调用不再等待，直接回退，直到补充完成。
+     *
+     * @return 缓冲已离开AWAITING_REFILL状态返回true，超过截止时间返回false
+     */
+    private boolean awaitRefill(long deadlineNanos) {
+        for (int i = 0; i < REFILL_SPIN_TRIES; i++) {
+            if (buffer.getStateOpaque() != SegmentBuffer.STATE_AWAITING_REFILL) {
+                return true;
+            }
+            Thread.onSpinWait();
+        }
+        return refillWaiters.await(buffer, deadlineNanos);
+    }
+
+    private void recordRefillWait(long waitStartNanos, boolean timedOut) {
+        if (waitStartNanos == NOT_WAITING) {
+            return;
+        }
+        refillWaitCount.increment();
+        refillWaitNanos.add(System.nanoTime() - waitStartNanos);
+        if (timedOut) {
+            refillWaitTimeouts.increment();
+        }
+    }
+
+    private void recordSwitchSpin(long spinStartNanos) {
+        long spinNanos = System.nanoTime() - spinStartNanos;
+        switchSpinNanos.add(spinNanos);
+        metrics.recordSwitchSpin(spinNanos);
+    }
+
+    /**
+     * 分配器切割新块时调用（供ThreadLocalAllocator和StripedAllocator调用）
+     */
+    void recordChunkSize(int chunkSize) {
+        metrics.recordChunkSize(chunkSize);
+    }
+
+    /**
+     * 切换到下一个排队号段（调用方已持有SWITCHING状态）
+     * <p>
+     * 没有排队号段但有获取在途时进入AWAITING_REFILL等待获取完成；
+     * 既没有排队号段也没有获取在途时进入降级模式。
+     * 先读取在途标志再尝试切换：读取时无在途获取则之后也不会有新的号段入队。
+     */
+    private void switchSlot() {
+        boolean fetchInFlight = fetching.get();
+        if (buffer.trySwitch()) {
+            segmentSwitches.increment();
+            prefetchPolicy.onSwitch(System.nanoTime());
+            buffer.setStateVolatile(SegmentBuffer.STATE_NORMAL);
+            triggerPrefetch();
+            return;
+        }
+        if (fetchInFlight) {
+            refillWaitExpired = false;
+            buffer.setStateVolatile(SegmentBuffer.STATE_AWAITING_REFILL);
+            if (!fetching.get()) {
+                releaseRefillWaiters();
+            }
+            return;
+        }
+        if (degradeEnabled) {
+            enterDegraded();
+        } else {
+            buffer.setStateVolatile(SegmentBuffer.STATE_NORMAL);
+            throw new IllegalStateException("Segment buffer exhausted and degradation is disabled");
+        }
+    }
+
+    private void enterDegraded() {
+        degradedEntries.increment();
+        degradedSinceNanos = System.nanoTime();
+        buffer.setStateVolatile(SegmentBuffer.STATE_DEGRADED);
+        recoveryProbe.start();
+    }
+
+    private void exitDegraded() {
+        long since = degradedSinceNanos;
+        degradedSinceNanos = NOT_WAITING;
+        if (since != NOT_WAITING) {
+            long durationNanos = System.nanoTime() - since;
+            degradedNanos.add(durationNanos);
+            metrics.recordDegraded(durationNanos);
+        }
+    }
+
+    /**
+     * 排队号段不足目标预取深度且没有获取在途时，提交一次异步获取补足差额
+     * <p>
+     * 请求在获取线程上发起（兼容只实现同步获取的SegmentFetcher），异步实现会立即返回，
+     * 由I/O完成回调将号段入队。
+     */
+    private void triggerPrefetch() {
+        if (buffer.queued() >= prefetchPolicy.targetDepth() || !fetching.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            fetchExecutor.execute(this::prefetch);
+        } catch (RejectedExecutionException e) {
+            fetching.set(false);
+            log.debug("Segment fetch executor is shut down, skipping prefetch");
+        }
+    }
+
+    private void prefetch() {
+        int count = Math.max(prefetchPolicy.targetDepth() - buffer.queued(), 1);
+        long startNanos = System.nanoTime();
+        CompletableFuture<long[]> future;
+        try {
+            future = fetcher.fetchSegmentsAsync(count);
+        } catch (Exception e) {
+            future = CompletableFuture.failedFuture(e);
+        }
+        future.whenComplete((segmentNumbers, error) -> onPrefetched(segmentNumbers, error, startNanos));
+    }
+
+    /**
+     * 预取完成回调；同一时刻只有一次获取在途，因此号段入队仍是单生产者
+     */
+    private void onPrefetched(long[] segmentNumbers, Throwable error, long startNanos) {
+        int refilled = 0;
+        try {
+            if (error != null) {
+                log.warn("Segment prefetch exception, queued segments still usable", error);
+            } else if (segmentNumbers == null || segmentNumbers.length == 0) {
+                log.warn("Segment prefetch failed, queued segments still usable");
+            } else {
+                int seqBits = IdFormat.checkSeqBits(fetcher.seqBits());
+                for (long segmentNumber : segmentNumbers) {
+                    if (buffer.refill(segmentNumber, seqBits)) {
+                        refilled++;
                     } else {
-                        buffer.setStateVolatile(SegmentBuffer.STATE_NORMAL);
-                        throw new IllegalStateException("Segment buffer exhausted and degradation is disabled");
+                        wastedIds.add(1L << seqBits);
+                        log.warn("Segment ring is full, dropping prefetched segment: segmentNumber={}", segmentNumber);
                     }
                 }
+                log.debug("Segments prefetched successfully: count={}, queued={}, targetDepth={}",
+                        refilled, buffer.queued(), prefetchPolicy.targetDepth());
             }
+        } finally {
+            long latencyNanos = System.nanoTime() - startNanos;
+            prefetchPolicy.onFetchCompleted(latencyNanos);
+            metrics.recordFetch(latencyNanos, refilled > 0);
+            fetching.set(false);
+            releaseRefillWaiters();
         }
+        if (refilled > 0) {
+            triggerPrefetch();
+        }
+    }
+
+    private void releaseRefillWaiters() {
+        if (buffer.compareAndSetState(SegmentBuffer.STATE_AWAITING_REFILL, SegmentBuffer.STATE_NORMAL)) {
+            refillWaiters.signalAll();
+        }
+    }
+
+    private LeaseCheckpointer openCheckpointer(SegmentIdGeneratorOptions options, String journalName) {
+        if (options.getJournalDirectory() == null || options.getJournalDirectory().isBlank()) {
+            return null;
+        }
+        try {
+            LeaseJournal journal = LeaseJournal.open(Path.of(options.getJournalDirectory()), journalName);
+            log.info("Lease journal opened: path={}", journal.getPath());
+            return new LeaseCheckpointer(journal, buffer, options.getJournalSafetyMargin());
+        } catch (IOException | RuntimeException e) {
+            log.warn("Failed to open lease journal, continuing without it: name={}", journalName, e);
+            return null;
+        }
+    }
+
+    private boolean restoreFromJournal() {
+        if (checkpointer == null) {
+            return false;
+        }
+        try {
+            if (checkpointer.restore()) {
+                log.info("Segment buffer restored from lease journal: queued={}", buffer.queued());
+                return true;
+            }
+        } catch (RuntimeException e) {
+            log.warn("Failed to restore segment buffer from lease journal", e);
+        }
+        return false;
     }
 
-    private void triggerAsyncFetch() {
-        fetchExecutor.submit(() -> {
-            try {
-                Long segmentNumber = fetcher.fetchSegment();
-                if (segmentNumber != null) {
-                    buffer.refillInactiveSlot(segmentNumber);
-                    log.debug("Segment refilled successfully: segmentNumber={}", segmentNumber);
-                } else {
-                    log.warn("Segment refill failed, current active segment still usable");
+    /**
+     * 切割越过槽位的可发放上界时同步写入检查点，直到日志中的高水位覆盖seqEnd，先落盘再发放
+     * <p>
+     * 槽位在切割后被切换移出缓冲时，检查点记录不再包含它；一条不含它的记录落盘后重启不会恢复它，上界直接放开。
+     *
+     * @return 高水位已覆盖返回true；写入检查点失败时返回false，本次切割的序列号作废
+     */
+    private boolean extendLease(SegmentSlot slot, long seqEnd) {
+        try {
+            synchronized (checkpointer) {
+                while (slot.limit < seqEnd) {
+                    checkpointer.checkpoint();
+                    leaseExtensions.increment();
+                    if (slot.limit < seqEnd && !checkpointer.covers(slot)) {
+                        checkpointer.release(slot);
+                    }
                 }
-            } catch (Exception e) {
-                log.warn("Segment refill exception, current active segment still usable", e);
-            } finally {
-                buffer.setStateVolatile(SegmentBuffer.STATE_NORMAL);
             }
-        });
+            return true;
+        } catch (RuntimeException e) {
+            log.warn("Lease journal checkpoint failed, refusing to hand out unjournaled IDs", e);
+            return false;
+        }
     }
 
-    private boolean fillBuffer() {
+    private void checkpointJournal() {
         try {
-            Long seg0 = fetcher.fetchSegment();
-            if (seg0 == null) {
-                return false;
+            synchronized (checkpointer) {
+                checkpointer.checkpoint();
             }
-            Long seg1 = fetcher.fetchSegment();
-            if (seg1 == null) {
+        } catch (RuntimeException e) {
+            log.warn("Lease journal checkpoint exception", e);
+        }
+    }
+
+    private void closeJournal() {
+        if (checkpointer == null) {
+            return;
+        }
+        try {
+            synchronized (checkpointer) {
+                checkpointer.checkpoint();
+                checkpointer.close();
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("Failed to close lease journal", e);
+        }
+    }
+
+    private boolean fillBuffer() {
+        try {
+            long[] segmentNumbers = fetchInitialSegments();
+            if (segmentNumbers.length == 0) {
                 return false;
             }
-            buffer.init(seg0, seg1);
-            log.info("Segment buffer initialized successfully: seg0={}, seg1={}", seg0, seg1);
+            int seqBits = IdFormat.checkSeqBits(fetcher.seqBits());
+            buffer.init(seqBits, segmentNumbers);
+            log.info("Segment buffer initialized successfully: seqBits={}, segments={}",
+                    seqBits, Arrays.toString(segmentNumbers));
             return true;
         } catch (Exception e) {
             log.error("Segment buffer initialization exception", e);
@@ -169,28 +620,199 @@ public class SegmentIdGenerator implements IdGenerator {
             return;
         }
         try {
-            Long seg0 = fetcher.fetchSegment();
-            if (seg0 == null) {
-                return;
-            }
-            Long seg1 = fetcher.fetchSegment();
-            if (seg1 == null) {
+            long[] segmentNumbers = fetchInitialSegments();
+            if (segmentNumbers.length == 0) {
                 return;
             }
-            buffer.init(seg0, seg1);
-            buffer.setStateVolatile(SegmentBuffer.STATE_NORMAL);
+            buffer.init(IdFormat.checkSeqBits(fetcher.seqBits()), segmentNumbers);
+            exitDegraded();
             recoveryProbe.stop();
             log.info("Service recovered, exiting degraded mode");
+            triggerPrefetch();
         } catch (Exception e) {
             log.debug("Recovery probe failed", e);
         }
     }
 
     /**
-     * 关闭生成器，释放所有后台线程资源
+     * 同步获取初始号段（启动和降级恢复时），失败时同样记录获取耗时
+     */
+    private long[] fetchInitialSegments() {
+        long startNanos = System.nanoTime();
+        boolean success = false;
+        try {
+            long[] segmentNumbers = fetcher.fetchSegmentsAsync(INITIAL_SEGMENTS).join();
+            success = segmentNumbers.length > 0;
+            return segmentNumbers;
+        } finally {
+            metrics.recordFetch(System.nanoTime() - startNanos, success);
+        }
+    }
+
+    private ThreadLocalAllocator newThreadLocalAllocator() {
+        ThreadLocalAllocator allocator = new ThreadLocalAllocator(this);
+        if (reclaimEnabled) {
+            reclaimableAllocators.add(allocator);
+        }
+        return allocator;
+    }
+
+    /**
+     * 回收退出线程和空闲线程的TLAB剩余序列号，退出线程的分配器同时从回收列表中移除
+     */
+    private void reclaimIdleAllocators() {
+        try {
+            long reclaimed = 0;
+            Iterator<ThreadLocalAllocator> it = reclaimableAllocators.iterator();
+            while (it.hasNext()) {
+                ThreadLocalAllocator allocator = it.next();
+                boolean terminated = allocator.isOwnerTerminated();
+                reclaimed += allocator.reclaimIdle(reclaimPool, terminated);
+                if (terminated) {
+                    it.remove();
+                }
+            }
+            if (reclaimed > 0) {
+                reclaimedIds.add(reclaimed);
+                log.debug("Reclaimed {} unused sequence numbers from idle thread-local allocators", reclaimed);
+            }
+        } catch (Exception e) {
+            log.warn("Thread-local allocator reclamation exception", e);
+        }
+    }
+
+    /**
+     * 从退出或空闲线程的TLAB回收的序列号累计数量
+     */
+    public long getReclaimedIds() {
+        return reclaimedIds.sum();
+    }
+
+    /**
+     * 等待号段补充的次数（含超时）
+     */
+    public long getRefillWaitCount() {
+        return refillWaitCount.sum();
+    }
+
+    /**
+     * 等待号段补充的累计时间（纳秒）
+     */
+    public long getRefillWaitNanos() {
+        return refillWaitNanos.sum();
+    }
+
+    /**
+     * 等待号段补充超时、回退到降级生成器或抛出异常的次数
+     */
+    public long getRefillWaitTimeouts() {
+        return refillWaitTimeouts.sum();
+    }
+
+    /**
+     * 已发放的ID累计数量（含降级ID），TLAB按块计入，回收的序列号会扣除
+     */
+    public long getIssuedIds() {
+        return carvedIds.sum() - reclaimedIds.sum() + degradedIds.sum();
+    }
+
+    /**
+     * 降级生成器发放的ID累计数量
+     */
+    public long getDegradedIds() {
+        return degradedIds.sum();
+    }
+
+    /**
+     * 切换到排队号段的累计次数
+     */
+    public long getSegmentSwitches() {
+        return segmentSwitches.sum();
+    }
+
+    /**
+     * 调用方在槽位切换期间自旋的累计时间（纳秒）
+     */
+    public long getSwitchSpinNanos() {
+        return switchSpinNanos.sum();
+    }
+
+    /**
+     * 进入降级模式的累计次数
+     */
+    public long getDegradedEntries() {
+        return degradedEntries.sum();
+    }
+
+    /**
+     * 处于降级模式的累计时间（纳秒），包含当前仍在进行的降级
+     */
+    public long getDegradedNanos() {
+        long since = degradedSinceNanos;
+        return degradedNanos.sum() + (since == NOT_WAITING ? 0 : System.nanoTime() - since);
+    }
+
+    /**
+     * 当前是否处于降级模式
+     */
+    public boolean isDegraded() {
+        return buffer.getStateOpaque() == SegmentBuffer.STATE_DEGRADED;
+    }
+
+    /**
+     * 估算浪费的序列号数量：环形缓冲已满时丢弃的预取号段，以及从租约日志恢复时按最小余量估算跳过的序列号
+     */
+    public long getWastedIds() {
+        return wastedIds.sum();
+    }
+
+    /**
+     * 切割越过已落盘高水位、同步写入租约检查点的次数
+     */
+    public long getLeaseExtensions() {
+        return leaseExtensions.sum();
+    }
+
+    private static SegmentIdGeneratorOptions degradeOptions(boolean degradeEnabled) {
+        SegmentIdGeneratorOptions options = new SegmentIdGeneratorOptions();
+        options.setDegradeEnabled(degradeEnabled);
+        return options;
+    }
+
+    /**
+     * 创建号段获取线程池（单个守护线程，空闲时退出，业务标签较多时不常驻大量线程）
+     */
+    private static ExecutorService newFetchExecutor(String journalName) {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, FETCH_THREAD_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), r -> {
+            Thread t = new Thread(r, "id-segment-fetcher-" + journalName);
+            t.setDaemon(true);
+            return t;
+        });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * 关闭生成器，停止恢复探测并写入最后一次租约检查点，释放号段获取线程和号段获取器并移除注册的指标；
+     * 独占恢复探测线程时一并释放
      */
     public void shutdown() {
-        recoveryProbe.shutdown();
+        recoveryProbe.stop();
+        if (reclaimTask != null) {
+            reclaimTask.cancel(false);
+        }
+        if (checkpointTask != null) {
+            checkpointTask.cancel(false);
+        }
+        closeJournal();
         fetchExecutor.shutdown();
+        fetcher.close();
+        if (ownsProbeScheduler) {
+            probeScheduler.shutdown();
+        }
+        GeneratorMetrics registered = metrics;
+        metrics = GeneratorMetrics.NOOP;
+        registered.close();
     }
 }
@@ -0,0 +1,54 @@
+package org.aurifolia.cloud.id.sdk.internal;
+
+import lombok.Data;
+
+/**
+ * 号段ID生成器选项
+ *
+ * @author Peng Dan
+ * @since 2.0
+ */
+@Data
+public class SegmentIdGeneratorOptions {
+
+    /**
+     * 是否启用降级模式，默认true
+     */
+    private boolean degradeEnabled = true;
+
+    /**
+     * 活跃号段耗尽、等待在途号段补充的最长时间（毫秒），默认1000；
+     * 超时后本次调用回退到降级生成器（未启用降级时抛出异常）
+     */
+    private long refillWaitTimeoutMillis = 1000;
+
+    /**
+     * 序列号分配器模式，默认AUTO（虚拟线程使用分条分配器）
+     */
+    private AllocatorMode allocatorMode = AllocatorMode.AUTO;
+
+    /**
+     * 指标记录器工厂，默认null（不记录）；Spring环境下存在Micrometer时由自动配置设置
+     */
+    private GeneratorMetricsFactory metricsFactory;
+
+    /**
+     * 线程本地分配器空闲多久（毫秒）后回收其剩余序列号，也是回收任务的执行间隔，默认1000；0表示不回收
+     */
+    private long reclaimIdleMillis = 1000;
+
+    /**
+     * 租约日志目录，为空时不启用；启用后每个业务标签一个日志文件，重启时从日志恢复号段
+     */
+    private String journalDirectory;
+
+    /**
+     * 租约日志检查点间隔（毫秒），默认100
+     */
+    private long journalFlushIntervalMillis = 100;
+
+    /**
+     * 租约日志高水位的最小安全余量（序列号个数），默认65536；实际余量随上一周期消耗量自适应放大
+     */
+    private long journalSafetyMargin = 65536;
+}
@@ -0,0 +1,96 @@
+package org.aurifolia.cloud.id.sdk.internal;
+
+import lombok.extern.slf4j.Slf4j;
+import org.aurifolia.cloud.id.sdk.IdGeneratorRegistry;
+import org.aurifolia.cloud.id.sdk.fetcher.SegmentFetcher;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.function.Function;
+
+/**
+ * 号段ID生成器注册表
+ * <p>
+ * 每个业务标签在首次使用时懒加载创建独立的号段缓冲、TLAB和号段获取线程，
+ * 所有业务标签共享同一个降级生成器和同一个调度线程（触发恢复探测、租约检查点和TLAB回收）；
+ * 调度线程上只运行不阻塞的任务，恢复探测的号段获取在各业务标签自己的获取线程上执行。
+ * 查找路径为一次ConcurrentHashMap.get；首次创建时先以putIfAbsent占位，再在映射之外构造生成器
+ * （构造过程包含阻塞的号段获取），同一业务标签的并发调用等待占位完成，其他业务标签不受影响。
+ *
+ * @author Peng Dan
+ * @since 2.0
+ */
+@Slf4j
+public class SegmentIdGeneratorRegistry implements IdGeneratorRegistry {
+
+    private final Function<String, SegmentFetcher> fetcherFactory;
+    private final DegradedIdGenerator degradedGenerator;
+    private final SegmentIdGeneratorOptions options;
+    private final ScheduledExecutorService probeScheduler;
+    private final ConcurrentMap<String, CompletableFuture<SegmentIdGenerator>> generators = new ConcurrentHashMap<>();
+
+    /**
+     * @param fetcherFactory 按业务标签创建号段获取器
+     * @param options        所有业务标签共用的生成器选项
+     */
+    public SegmentIdGeneratorRegistry(Function<String, SegmentFetcher> fetcherFactory,
+                                      SegmentIdGeneratorOptions options) {
+        this.fetcherFactory = fetcherFactory;
+        this.degradedGenerator = new DegradedIdGenerator();
+        this.options = options;
+        this.probeScheduler = RecoveryProbe.newScheduler();
+    }
+
+    @Override
+    public SegmentIdGenerator forTag(String bizTag) {
+        CompletableFuture<SegmentIdGenerator> generator = generators.get(bizTag);
+        if (generator == null) {
+            CompletableFuture<SegmentIdGenerator> created = new CompletableFuture<>();
+            generator = generators.putIfAbsent(bizTag, created);
+            if (generator == null) {
+                return create(bizTag, created);
+            }
+        }
+        try {
+            return generator.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * 构造生成器并完成占位；构造失败时关闭获取器、移除占位，下次调用重新创建
+     */
+    private SegmentIdGenerator create(String bizTag, CompletableFuture<SegmentIdGenerator> placeholder) {
+        log.info("Creating segment id generator: bizTag={}", bizTag);
+        SegmentFetcher fetcher = null;
+        try {
+            fetcher = fetcherFactory.apply(bizTag);
+            SegmentIdGenerator generator = new SegmentIdGenerator(fetcher, degradedGenerator,
+                    options, probeScheduler, bizTag);
+            placeholder.complete(generator);
+            return generator;
+        } catch (RuntimeException e) {
+            if (fetcher != null) {
+                fetcher.close();
+            }
+            generators.remove(bizTag, placeholder);
+            placeholder.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * 关闭注册表，停止所有生成器并释放共享线程
+     */
+    public void shutdown() {
+        generators.values().forEach(generator -> generator.thenAccept(SegmentIdGenerator::shutdown));
+        probeScheduler.shutdown();
+    }
+}
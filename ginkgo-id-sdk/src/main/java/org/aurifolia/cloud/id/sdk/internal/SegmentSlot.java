@@ -6,40 +6,114 @@ import java.lang.invoke.VarHandle;
 /**
  * 号段槽位
  * <p>
- * 双缓冲中的一个槽位，包含号段编号和原子序列号计数器
+ * 双缓冲中的一个槽位，包含号段编号、该号段的位布局和原子序列号计数器。
+ * 序列号由所有线程通过getAndAdd切割，会越过maxSeq，读取方需自行截断；
+ * 启用租约日志时，切割出的序列号不能越过limit（已落盘的高水位），越过前须先写入检查点提高limit。
+ * 槽位字段前后各填充128字节（两条缓存行，覆盖相邻行预取），避免与堆上相邻对象发生伪共享。
  *
  * @author Peng Dan
  * @since 2.0
  */
-final class SegmentSlot {
+final class SegmentSlot extends SegmentSlotFields {
 
     private static final VarHandle SEQUENCE;
 
     static {
         try {
             SEQUENCE = MethodHandles.lookup()
-                    .findVarHandle(SegmentSlot.class, "sequence", long.class);
+                    .findVarHandle(SegmentSlotFields.class, "sequence", long.class);
         } catch (ReflectiveOperationException e) {
             throw new ExceptionInInitializerError(e);
         }
     }
 
-    final long segmentNumber;
-    volatile long sequence = 0;
+    byte p128, p129, p130, p131, p132, p133, p134, p135, p136, p137, p138, p139, p140, p141, p142, p143;
+    byte p144, p145, p146, p147, p148, p149, p150, p151, p152, p153, p154, p155, p156, p157, p158, p159;
+    byte p160, p161, p162, p163, p164, p165, p166, p167, p168, p169, p170, p171, p172, p173, p174, p175;
+    byte p176, p177, p178, p179, p180, p181, p182, p183, p184, p185, p186, p187, p188, p189, p190, p191;
+    byte p192, p193, p194, p195, p196, p197, p198, p199, p200, p201, p202, p203, p204, p205, p206, p207;
+    byte p208, p209, p210, p211, p212, p213, p214, p215, p216, p217, p218, p219, p220, p221, p222, p223;
+    byte p224, p225, p226, p227, p228, p229, p230, p231, p232, p233, p234, p235, p236, p237, p238, p239;
+    byte p240, p241, p242, p243, p244, p245, p246, p247, p248, p249, p250, p251, p252, p253, p254, p255;
 
-    SegmentSlot(long segmentNumber) {
-        this.segmentNumber = segmentNumber;
+    /**
+     * 从指定序列号开始的槽位（新号段从0开始，从租约日志恢复时从高水位开始）
+     */
+    SegmentSlot(long segmentNumber, int seqBits, long startSequence) {
+        super(segmentNumber, seqBits);
+        this.sequence = startSequence;
     }
 
     static long getSequenceOpaque(SegmentSlot slot) {
         return (long) SEQUENCE.getOpaque(slot);
     }
 
-    static boolean compareAndSetSequence(SegmentSlot slot, long expected, long update) {
-        return SEQUENCE.compareAndSet(slot, expected, update);
+    static long getAndAddSequence(SegmentSlot slot, long delta) {
+        return (long) SEQUENCE.getAndAdd(slot, delta);
     }
 
     static long getSequenceVolatile(SegmentSlot slot) {
         return (long) SEQUENCE.getVolatile(slot);
     }
+
+    /**
+     * 提高可发放上界（调用方持有检查点锁，上界只增不减）
+     */
+    void raiseLimit(long newLimit) {
+        if (newLimit > limit) {
+            limit = newLimit;
+        }
+    }
+
+    /**
+     * 已切割的序列号上界（不含），越过号段容量的部分截断为maxSeq + 1
+     */
+    static long carvedEnd(SegmentSlot slot) {
+        return Math.min(getSequenceVolatile(slot), slot.maxSeq + 1);
+    }
+}
+
+/**
+ * 槽位字段之前的填充
+ */
+abstract class SegmentSlotLhsPadding {
+
+    byte p000, p001, p002, p003, p004, p005, p006, p007, p008, p009, p010, p011, p012, p013, p014, p015;
+    byte p016, p017, p018, p019, p020, p021, p022, p023, p024, p025, p026, p027, p028, p029, p030, p031;
+    byte p032, p033, p034, p035, p036, p037, p038, p039, p040, p041, p042, p043, p044, p045, p046, p047;
+    byte p048, p049, p050, p051, p052, p053, p054, p055, p056, p057, p058, p059, p060, p061, p062, p063;
+    byte p064, p065, p066, p067, p068, p069, p070, p071, p072, p073, p074, p075, p076, p077, p078, p079;
+    byte p080, p081, p082, p083, p084, p085, p086, p087, p088, p089, p090, p091, p092, p093, p094, p095;
+    byte p096, p097, p098, p099, p100, p101, p102, p103, p104, p105, p106, p107, p108, p109, p110, p111;
+    byte p112, p113, p114, p115, p116, p117, p118, p119, p120, p121, p122, p123, p124, p125, p126, p127;
+}
+
+/**
+ * 槽位字段，位于前后两段填充之间。
+ * 父类字段总是布局在子类字段之前；填充使用byte字段，会先填满对象头和对齐留下的空洞，子类字段不会被放入父类的空洞
+ */
+abstract class SegmentSlotFields extends SegmentSlotLhsPadding {
+
+    final long segmentNumber;
+    final int seqBits;
+    /**
+     * 号段内最大序列号
+     */
+    final long maxSeq;
+    /**
+     * 号段的ID前缀（序列号为0时的ID）
+     */
+    final long prefix;
+    volatile long sequence = 0;
+    /**
+     * 可发放的序列号上界（不含）：未启用租约日志时不限制，启用时为日志中已落盘的高水位，只增不减
+     */
+    volatile long limit = Long.MAX_VALUE;
+
+    SegmentSlotFields(long segmentNumber, int seqBits) {
+        this.segmentNumber = segmentNumber;
+        this.seqBits = seqBits;
+        this.maxSeq = (1L << seqBits) - 1;
+        this.prefix = IdFormat.composeNormal(segmentNumber, 0, seqBits);
+    }
 }
@@ -0,0 +1,80 @@
+package org.aurifolia.cloud.id.sdk.internal;
+
+/**
+ * 分条ID分配器
+ * <p>
+ * 与ThreadLocalAllocator不同，不按线程保存状态，而是维护固定数量的分配单元（约为CPU数的2倍），
+ * 线程按身份哈希映射到某个单元。每个单元持有一段不可变的租约，租约内的序列号通过原子自增分配，
+ * 因此大量短命的虚拟线程共享少量单元，不会为每个线程预留号段造成浪费。
+ * <p>
+ * 租约耗尽时由抢到补充标志的线程从共享序列号切割新块；未抢到的线程直接从共享序列号取单个ID，不等待。
+ *
+ * @author Peng Dan
+ * @since 2.0
+ */
+final class StripedAllocator {
+
+    private final SegmentIdGenerator generator;
+    private final Cell[] cells;
+    private final int mask;
+
+    StripedAllocator(SegmentIdGenerator generator) {
+        this.generator = generator;
+        this.cells = LeaseCell.stripes(Cell[]::new, Cell::new);
+        this.mask = cells.length - 1;
+    }
+
+    /**
+     * 从当前线程映射的分配单元获取下一个ID
+     *
+     * @return ID值，如果号段已耗尽且无法分配新块则返回-1
+     */
+    long nextId() {
+        Cell cell = cells[LeaseCell.probe() & mask];
+        long id = cell.tryNext();
+        return id >= 0 ? id : refill(cell);
+    }
+
+    private long refill(Cell cell) {
+        if (!cell.tryLockRefill()) {
+            return allocateSingle();
+        }
+        try {
+            // 持有补充标志后重新检查，其他线程可能刚完成补充
+            long id = cell.tryNext();
+            if (id >= 0) {
+                return id;
+            }
+            Chunk chunk = cell.chunk;
+            int size = cell.chunkSize.get();
+            if (!generator.allocateChunk(size, chunk)) {
+                return -1;
+            }
+            cell.chunkSize.onAllocated(System.nanoTime());
+            generator.recordChunkSize(size);
+            long prefix = chunk.prefix;
+            // 块内第一个序列号留给当前线程，其余发布为新租约
+            cell.lease = new IdLease(prefix, chunk.seqStart + 1, chunk.seqEnd);
+            return prefix | chunk.seqStart;
+        } finally {
+            cell.unlockRefill();
+        }
+    }
+
+    private long allocateSingle() {
+        Chunk chunk = new Chunk();
+        if (!generator.allocateChunk(1, chunk)) {
+            return -1;
+        }
+        return chunk.prefix | chunk.seqStart;
+    }
+
+    /**
+     * 分配单元，在租约和补充标志之外持有块大小和Chunk，二者只由持有补充标志的线程访问
+     */
+    private static final class Cell extends LeaseCell {
+
+        private final Chunk chunk = new Chunk();
+        private final AdaptiveChunkSize chunkSize = new AdaptiveChunkSize();
+    }
+}
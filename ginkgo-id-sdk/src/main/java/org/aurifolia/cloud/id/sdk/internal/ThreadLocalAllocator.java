@@ -1,36 +1,43 @@
 package org.aurifolia.cloud.id.sdk.internal;
 
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.lang.ref.WeakReference;
+
 /**
  * 线程本地ID分配器（TLAB）
  * <p>
  * 每个线程预分配一小段序列号，线程内不涉及并发操作。
  * 当预分配号段用完时，通过CAS从共享序列号中切割新块。
- * 块大小基于EMA（指数移动平均）平滑估算分配速率，按比例自适应调整（256~65536）。
+ * 块大小由AdaptiveChunkSize按分配速率自适应调整（256~65536）。
+ * <p>
+ * 块以租约形式发布，持有线程每次只认领CLAIM_BATCH个序列号（一次无竞争CAS），
+ * 线程退出或长期空闲时，回收任务可以抢占租约中尚未认领的部分[claimed, seqEnd)交回共享回收池。
  *
  * @author Peng Dan
  * @since 2.0
  */
 final class ThreadLocalAllocator {
 
-    private static final int INITIAL_CHUNK_SIZE = 4096;
-    private static final int MIN_CHUNK_SIZE = 256;
-    private static final int MAX_CHUNK_SIZE = 65536;
-    private static final long TARGET_INTERVAL_NANOS = 100_000_000L;
-    private static final long EMA_WEIGHT = 4;
-    private static final long EMA_DIVISOR = EMA_WEIGHT + 1;
+    static final int CLAIM_BATCH = 256;
 
     private final SegmentIdGenerator generator;
     private final Chunk chunk = new Chunk();
+    private final AdaptiveChunkSize chunkSize = new AdaptiveChunkSize();
+    private final WeakReference<Thread> owner;
 
+    private volatile Lease lease;
     private long segmentPrefix;
-    private long seqEnd;
+    private long claimLimit;
     private long cursor;
-    private int chunkSize = INITIAL_CHUNK_SIZE;
-    private long lastAllocTimeNanos = 0;
-    private long emaIntervalNanos = -1;
+
+    // 仅由回收任务访问
+    private Lease lastSeenLease;
+    private long lastSeenClaimed;
 
     ThreadLocalAllocator(SegmentIdGenerator generator) {
         this.generator = generator;
+        this.owner = new WeakReference<>(Thread.currentThread());
     }
 
     /**
@@ -39,42 +46,113 @@ final class ThreadLocalAllocator {
      * @return ID值，如果号段已耗尽且无法分配新块则返回-1
      */
     long nextId() {
-        if (cursor >= seqEnd) {
-            if (!allocateChunk()) {
+        if (cursor >= claimLimit) {
+            if (!claimBatch() && !allocateChunk()) {
                 return -1;
             }
         }
         return segmentPrefix | cursor++;
     }
 
+    /**
+     * 在当前租约内继续认领下一批序列号，租约已耗尽或已被回收时返回false
+     */
+    private boolean claimBatch() {
+        Lease current = lease;
+        if (current == null || claimLimit >= current.seqEnd) {
+            return false;
+        }
+        long newLimit = Math.min(claimLimit + CLAIM_BATCH, current.seqEnd);
+        if (!current.compareAndSetClaimed(claimLimit, newLimit)) {
+            return false;
+        }
+        claimLimit = newLimit;
+        return true;
+    }
+
     private boolean allocateChunk() {
-        if (!generator.allocateChunk(chunkSize, chunk)) {
+        int size = chunkSize.get();
+        if (!generator.allocateChunk(size, chunk)) {
             return false;
         }
 
-        adaptChunkSize(System.nanoTime());
+        chunkSize.onAllocated(System.nanoTime());
+        generator.recordChunkSize(size);
 
-        this.segmentPrefix = IdFormat.NORMAL_FLAG | ((chunk.segmentNumber & IdFormat.SEGMENT_MASK) << IdFormat.SEQ_BITS);
-        this.seqEnd = chunk.seqEnd;
+        long firstLimit = Math.min(chunk.seqStart + CLAIM_BATCH, chunk.seqEnd);
+        this.segmentPrefix = chunk.prefix;
         this.cursor = chunk.seqStart;
+        this.claimLimit = firstLimit;
+        this.lease = new Lease(chunk.prefix, firstLimit, chunk.seqEnd);
         return true;
     }
 
-    private void adaptChunkSize(long now) {
-        if (lastAllocTimeNanos == 0) {
-            lastAllocTimeNanos = now;
-            return;
+    /**
+     * 持有线程是否已退出（线程对象被回收也视为退出）
+     */
+    boolean isOwnerTerminated() {
+        Thread thread = owner.get();
+        return thread == null || !thread.isAlive();
+    }
+
+    /**
+     * 抢占租约中尚未认领的剩余序列号（仅由回收任务调用）
+     * <p>
+     * 持有线程已退出时直接抢占；否则只有在两次回收之间租约没有任何认领时才视为空闲并抢占。
+     *
+     * @param pool 回收池，抢占成功的序列号区间放入其中
+     * @return 回收的序列号数量
+     */
+    long reclaimIdle(ReclaimPool pool, boolean ownerTerminated) {
+        Lease current = lease;
+        if (current == null) {
+            return 0;
+        }
+        long claimed = current.getClaimed();
+        if (!ownerTerminated && (current != lastSeenLease || claimed != lastSeenClaimed)) {
+            lastSeenLease = current;
+            lastSeenClaimed = claimed;
+            return 0;
+        }
+        if (claimed >= current.seqEnd || !current.compareAndSetClaimed(claimed, current.seqEnd)) {
+            return 0;
+        }
+        pool.offer(current.prefix, claimed, current.seqEnd);
+        lastSeenClaimed = current.seqEnd;
+        return current.seqEnd - claimed;
+    }
+
+    /**
+     * 已发布的序列号租约，claimed之前的部分归持有线程，之后的部分可被回收
+     */
+    private static final class Lease {
+
+        private static final VarHandle CLAIMED;
+
+        static {
+            try {
+                CLAIMED = MethodHandles.lookup().findVarHandle(Lease.class, "claimed", long.class);
+            } catch (ReflectiveOperationException e) {
+                throw new ExceptionInInitializerError(e);
+            }
         }
-        long intervalNanos = now - lastAllocTimeNanos;
-        lastAllocTimeNanos = now;
 
-        emaIntervalNanos = emaIntervalNanos < 0 ? intervalNanos
-                : (intervalNanos + emaIntervalNanos * EMA_WEIGHT) / EMA_DIVISOR;
+        final long prefix;
+        final long seqEnd;
+        private volatile long claimed;
+
+        Lease(long prefix, long claimed, long seqEnd) {
+            this.prefix = prefix;
+            this.claimed = claimed;
+            this.seqEnd = seqEnd;
+        }
+
+        long getClaimed() {
+            return claimed;
+        }
 
-        if (emaIntervalNanos < TARGET_INTERVAL_NANOS >> 1) {
-            chunkSize = Math.min(chunkSize << 1, MAX_CHUNK_SIZE);
-        } else if (emaIntervalNanos > TARGET_INTERVAL_NANOS << 1) {
-            chunkSize = Math.max(chunkSize >> 1, MIN_CHUNK_SIZE);
+        boolean compareAndSetClaimed(long expected, long newValue) {
+            return CLAIMED.compareAndSet(this, expected, newValue);
         }
     }
 }
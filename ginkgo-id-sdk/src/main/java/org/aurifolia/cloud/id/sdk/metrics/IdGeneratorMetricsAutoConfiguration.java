@@ -0,0 +1,35 @@
+package org.aurifolia.cloud.id.sdk.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aurifolia.cloud.id.sdk.internal.GeneratorMetrics;
+import org.aurifolia.cloud.id.sdk.internal.GeneratorMetricsFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * ID生成器指标自动配置
+ * <p>
+ * classpath上存在Micrometer时生效，容器中有MeterRegistry时为每个业务标签注册指标，否则不记录
+ *
+ * @author Peng Dan
+ * @since 2.0
+ */
+@Configuration
+@ConditionalOnClass(name = "io.micrometer.core.instrument.MeterRegistry")
+@ConditionalOnProperty(name = "ginkgo.id.sdk.metrics.enabled", havingValue = "true", matchIfMissing = true)
+public class IdGeneratorMetricsAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public GeneratorMetricsFactory idGeneratorMetricsFactory(ObjectProvider<MeterRegistry> meterRegistry) {
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        if (registry == null) {
+            return (bizTag, generator) -> GeneratorMetrics.NOOP;
+        }
+        return new MicrometerGeneratorMetricsFactory(registry);
+    }
+}
@@ -0,0 +1,80 @@
+package org.aurifolia.cloud.id.sdk.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.aurifolia.cloud.id.sdk.internal.GeneratorMetrics;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.aurifolia.cloud.id.sdk.metrics.MicrometerGeneratorMetricsFactory.PREFIX;
+
+/**
+ * 单个业务标签的Micrometer指标记录器
+ *
+ * @author Peng Dan
+ * @since 2.0
+ */
+final class MicrometerGeneratorMetrics implements GeneratorMetrics {
+
+    private final MeterRegistry registry;
+    /**
+     * 为该业务标签注册的全部指标，关闭时移除
+     */
+    private final List<Meter> meters;
+    private final Timer fetchSuccess;
+    private final Timer fetchFailure;
+    private final Timer switchSpin;
+    private final Timer degraded;
+    private final DistributionSummary chunkSize;
+
+    MicrometerGeneratorMetrics(MeterRegistry registry, Tags tags, List<Meter> meters) {
+        this.registry = registry;
+        this.meters = meters;
+        this.fetchSuccess = fetchTimer(registry, tags, "success");
+        this.fetchFailure = fetchTimer(registry, tags, "failure");
+        this.switchSpin = Timer.builder(PREFIX + "switch.spin")
+                .tags(tags).description("调用方在槽位切换期间的自旋时间").register(registry);
+        this.degraded = Timer.builder(PREFIX + "degraded.duration")
+                .tags(tags).description("每次降级模式的持续时间").register(registry);
+        this.chunkSize = DistributionSummary.builder(PREFIX + "chunk.size")
+                .tags(tags).baseUnit("ids").description("TLAB和分条分配单元每次切割的块大小").register(registry);
+        meters.addAll(List.of(fetchSuccess, fetchFailure, switchSpin, degraded, chunkSize));
+    }
+
+    private static Timer fetchTimer(MeterRegistry registry, Tags tags, String outcome) {
+        return Timer.builder(PREFIX + "segment.fetch")
+                .tags(tags.and("outcome", outcome))
+                .description("号段获取耗时")
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    @Override
+    public void recordFetch(long latencyNanos, boolean success) {
+        (success ? fetchSuccess : fetchFailure).record(latencyNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void recordSwitchSpin(long spinNanos) {
+        switchSpin.record(spinNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void recordChunkSize(int size) {
+        chunkSize.record(size);
+    }
+
+    @Override
+    public void recordDegraded(long durationNanos) {
+        degraded.record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void close() {
+        meters.forEach(registry::remove);
+    }
+}
@@ -0,0 +1,68 @@
+package org.aurifolia.cloud.id.sdk.metrics;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.aurifolia.cloud.id.sdk.internal.GeneratorMetrics;
+import org.aurifolia.cloud.id.sdk.internal.GeneratorMetricsFactory;
+import org.aurifolia.cloud.id.sdk.internal.SegmentIdGenerator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 基于Micrometer的指标记录器工厂
+ * <p>
+ * 累计计数以FunctionCounter/FunctionTimer注册，抓取时才读取生成器内的LongAdder，热路径不经过Micrometer；
+ * 获取延迟、切换自旋、块大小和降级时长等低频事件由MicrometerGeneratorMetrics记录到Timer和DistributionSummary。
+ * 所有指标带bizTag标签，生成器关闭时从注册表移除。
+ *
+ * @author Peng Dan
+ * @since 2.0
+ */
+public class MicrometerGeneratorMetricsFactory implements GeneratorMetricsFactory {
+
+    static final String PREFIX = "ginkgo.id.";
+
+    private final MeterRegistry registry;
+
+    public MicrometerGeneratorMetricsFactory(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public GeneratorMetrics create(String bizTag, SegmentIdGenerator generator) {
+        Tags tags = Tags.of("bizTag", bizTag);
+        List<Meter> meters = new ArrayList<>();
+        meters.add(FunctionCounter.builder(PREFIX + "ids.issued", generator, SegmentIdGenerator::getIssuedIds)
+                .tags(tags).description("已发放的ID数量（含降级ID）").register(registry));
+        meters.add(FunctionCounter.builder(PREFIX + "ids.degraded", generator, SegmentIdGenerator::getDegradedIds)
+                .tags(tags).description("降级生成器发放的ID数量").register(registry));
+        meters.add(FunctionCounter.builder(PREFIX + "ids.reclaimed", generator, SegmentIdGenerator::getReclaimedIds)
+                .tags(tags).description("从空闲或退出线程回收的序列号数量").register(registry));
+        meters.add(FunctionCounter.builder(PREFIX + "ids.wasted", generator, SegmentIdGenerator::getWastedIds)
+                .tags(tags).description("估算浪费的序列号数量").register(registry));
+        meters.add(FunctionCounter.builder(PREFIX + "lease.extensions", generator,
+                        SegmentIdGenerator::getLeaseExtensions)
+                .tags(tags).description("切割越过已落盘高水位时同步写入租约检查点的次数").register(registry));
+        meters.add(FunctionCounter.builder(PREFIX + "segment.switches", generator,
+                        SegmentIdGenerator::getSegmentSwitches)
+                .tags(tags).description("切换到排队号段的次数").register(registry));
+        meters.add(FunctionCounter.builder(PREFIX + "degraded.entries", generator,
+                        SegmentIdGenerator::getDegradedEntries)
+                .tags(tags).description("进入降级模式的次数").register(registry));
+        meters.add(FunctionCounter.builder(PREFIX + "degraded.time", generator,
+                        g -> g.getDegradedNanos() / (double) TimeUnit.SECONDS.toNanos(1))
+                .tags(tags).baseUnit("seconds").description("处于降级模式的累计时间").register(registry));
+        meters.add(Gauge.builder(PREFIX + "degraded.active", generator, g -> g.isDegraded() ? 1 : 0)
+                .tags(tags).description("当前是否处于降级模式").register(registry));
+        meters.add(FunctionTimer.builder(PREFIX + "refill.wait", generator, SegmentIdGenerator::getRefillWaitCount,
+                        SegmentIdGenerator::getRefillWaitNanos, TimeUnit.NANOSECONDS)
+                .tags(tags).description("等待在途号段补充").register(registry));
+        return new MicrometerGeneratorMetrics(registry, tags, meters);
+    }
+}
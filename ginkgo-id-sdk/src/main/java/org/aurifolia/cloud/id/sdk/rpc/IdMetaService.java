@@ -1,5 +1,12 @@
 package org.aurifolia.cloud.id.sdk.rpc;
 
+import org.apache.dubbo.common.stream.StreamObserver;
+import org.aurifolia.cloud.id.sdk.rpc.dto.SegmentAllocation;
+import org.aurifolia.cloud.id.sdk.rpc.dto.SegmentDemand;
+import org.aurifolia.cloud.id.sdk.rpc.dto.SegmentPush;
+
+import java.util.concurrent.CompletableFuture;
+
 /**
  * ID元数据Dubbo RPC服务接口
  *
@@ -15,4 +22,47 @@ public interface IdMetaService {
      * @return 号段编号
      */
     Long nextSegment(String bizTag);
+
+    /**
+     * 一次申请连续count个segment号段（同一事务内分配），结果附带序列号位宽
+     *
+     * @param bizTag 业务标识
+     * @param count  号段数量
+     * @return 分配结果，区间为[maxId - count + 1, maxId]
+     */
+    SegmentAllocation allocateSegments(String bizTag, int count);
+
+    /**
+     * 异步申请连续count个segment号段
+     * <p>
+     * 返回CompletableFuture的方法由Dubbo消费端异步调用，调用线程不会阻塞等待响应；
+     * 旧版服务端只提供{@link #nextSegment(String)}，没有该方法，调用会失败
+     *
+     * @param bizTag 业务标识
+     * @param count  号段数量
+     * @return 分配结果
+     */
+    default CompletableFuture<SegmentAllocation> allocateSegmentsAsync(String bizTag, int count) {
+        return CompletableFuture.completedFuture(allocateSegments(bizTag, count));
+    }
+
+    /**
+     * 批量签发现成的ID，供不便内嵌生成器的调用方使用
+     *
+     * @param bizTag 业务标识
+     * @param count  ID数量
+     * @return 连续ID区间[start0, length0, start1, length1, ...]，编码见{@link org.aurifolia.cloud.id.sdk.IdRuns}
+     */
+    long[] nextIdRuns(String bizTag, int count);
+
+    /**
+     * 订阅号段推送（Triple双向流）
+     * <p>
+     * 客户端通过返回的流发送{@link SegmentDemand}给出各业务标签的推送额度，服务端在额度内
+     * 提前分配号段并通过pushes推送，客户端不必在号段耗尽时再发起请求。一条流可订阅多个业务标签。
+     *
+     * @param pushes 服务端推送号段的流
+     * @return 客户端发送需求的流
+     */
+    StreamObserver<SegmentDemand> subscribeSegments(StreamObserver<SegmentPush> pushes);
 }
@@ -1,6 +1,9 @@
 package org.aurifolia.cloud.id.sdk.rpc.config;
 
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.aurifolia.cloud.id.sdk.config.AbstractIdGeneratorProperties;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
 /**
@@ -10,21 +13,28 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
  * @since 2.0
  */
 @Data
+@EqualsAndHashCode(callSuper = true)
+@ToString(callSuper = true)
 @ConfigurationProperties(prefix = "ginkgo.id.sdk.rpc")
-public class RpcIdGeneratorProperties {
+public class RpcIdGeneratorProperties extends AbstractIdGeneratorProperties {
 
     /**
-     * 业务标签
+     * 是否通过号段订阅流接收服务端推送的号段，默认false；推送不可用时仍按原方式拉取
      */
-    private String bizTag = "default";
+    private Boolean streamEnabled = false;
 
     /**
-     * 是否启用
+     * 提前推送的时间量（毫秒），推送窗口按该时间内的预计消耗计算，默认1000
      */
-    private Boolean enabled = false;
+    private Long streamLeadTimeMillis = 1000L;
 
     /**
-     * 是否启用降级模式，默认true
+     * 推送窗口上限（号段数），不应超过服务端单个业务标签的额度上限1024，默认64
      */
-    private Boolean degradeEnabled = true;
+    private Integer streamMaxWindow = 64;
+
+    /**
+     * 有在途额度时等待推送的最长时间（毫秒），超时后改为拉取，默认100
+     */
+    private Long streamPushWaitMillis = 100L;
 }
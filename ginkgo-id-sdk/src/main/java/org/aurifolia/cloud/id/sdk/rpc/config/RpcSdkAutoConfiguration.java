@@ -3,10 +3,15 @@ package org.aurifolia.cloud.id.sdk.rpc.config;
 import org.apache.dubbo.config.annotation.DubboReference;
 import org.apache.dubbo.config.spring.context.annotation.EnableDubbo;
 import org.aurifolia.cloud.id.sdk.IdGenerator;
+import org.aurifolia.cloud.id.sdk.IdGeneratorRegistry;
 import org.aurifolia.cloud.id.sdk.fetcher.rpc.RpcSegmentFetcher;
-import org.aurifolia.cloud.id.sdk.internal.DegradedIdGenerator;
-import org.aurifolia.cloud.id.sdk.internal.SegmentIdGenerator;
+import org.aurifolia.cloud.id.sdk.fetcher.rpc.SegmentStream;
+import org.aurifolia.cloud.id.sdk.fetcher.rpc.StreamingSegmentFetcher;
+import org.aurifolia.cloud.id.sdk.internal.GeneratorMetricsFactory;
+import org.aurifolia.cloud.id.sdk.internal.SegmentIdGeneratorOptions;
+import org.aurifolia.cloud.id.sdk.internal.SegmentIdGeneratorRegistry;
 import org.aurifolia.cloud.id.sdk.rpc.IdMetaService;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
@@ -28,12 +33,38 @@ public class RpcSdkAutoConfiguration {
     private IdMetaService idMetaService;
 
     /**
-     * 创建基于Dubbo RPC的ID生成器Bean
+     * 创建号段订阅流Bean，所有业务标签共享一条Triple双向流
+     */
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = "ginkgo.id.sdk.rpc.stream-enabled", havingValue = "true")
+    public SegmentStream segmentStream() {
+        return new SegmentStream(idMetaService);
+    }
+
+    /**
+     * 创建基于Dubbo RPC的多业务标签ID生成器注册表Bean，启用订阅流时优先使用服务端推送的号段
      */
     @Bean(destroyMethod = "shutdown")
-    public IdGenerator idGenerator(RpcIdGeneratorProperties properties) {
-        RpcSegmentFetcher fetcher = new RpcSegmentFetcher(idMetaService, properties.getBizTag());
-        DegradedIdGenerator degradedGenerator = new DegradedIdGenerator();
-        return new SegmentIdGenerator(fetcher, degradedGenerator, properties.getDegradeEnabled());
+    public IdGeneratorRegistry idGeneratorRegistry(RpcIdGeneratorProperties properties,
+                                                   ObjectProvider<SegmentStream> segmentStream,
+                                                   ObjectProvider<GeneratorMetricsFactory> metricsFactory) {
+        SegmentIdGeneratorOptions options = properties.toGeneratorOptions();
+        options.setMetricsFactory(metricsFactory.getIfAvailable());
+        SegmentStream stream = segmentStream.getIfAvailable();
+        if (stream == null) {
+            return new SegmentIdGeneratorRegistry(
+                    bizTag -> new RpcSegmentFetcher(idMetaService, bizTag), options);
+        }
+        return new SegmentIdGeneratorRegistry(bizTag -> new StreamingSegmentFetcher(stream,
+                new RpcSegmentFetcher(idMetaService, bizTag), bizTag, properties.getStreamLeadTimeMillis(),
+                properties.getStreamMaxWindow(), properties.getStreamPushWaitMillis()), options);
+    }
+
+    /**
+     * 创建默认业务标签的ID生成器Bean，生命周期由注册表管理
+     */
+    @Bean(destroyMethod = "")
+    public IdGenerator idGenerator(IdGeneratorRegistry idGeneratorRegistry, RpcIdGeneratorProperties properties) {
+        return idGeneratorRegistry.forTag(properties.getBizTag());
     }
 }
@@ -0,0 +1,38 @@
+package org.aurifolia.cloud.id.sdk.rpc.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+/**
+ * 号段分配结果，随号段区间一并下发序列号位宽，客户端不必单独查询
+ *
+ * @author Peng Dan
+ * @since 2.0
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SegmentAllocation implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 区间内最大的号段编号，分配的区间为[maxId - count + 1, maxId]
+     */
+    private Long maxId;
+
+    /**
+     * 分配的号段数量
+     */
+    private Integer count;
+
+    /**
+     * 序列号位宽
+     */
+    private Integer seqBits;
+}
@@ -0,0 +1,40 @@
+package org.aurifolia.cloud.id.sdk.rpc.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+/**
+ * 号段订阅流上客户端发出的需求
+ * <p>
+ * credits为本次新增的推送额度（号段数），服务端推送的号段总数不会超过客户端累计给出的额度。
+ *
+ * @author Peng Dan
+ * @since 2.0
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SegmentDemand implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 业务标签
+     */
+    private String bizTag;
+
+    /**
+     * 新增的推送额度（号段数）
+     */
+    private Integer credits;
+
+    /**
+     * 客户端当前的ID消耗速率（个/秒），客户端据此计算额度；服务端只按credits推送，不读取该字段
+     */
+    private Long idsPerSecond;
+}
@@ -0,0 +1,49 @@
+package org.aurifolia.cloud.id.sdk.rpc.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+/**
+ * 号段订阅流上服务端推送的号段区间
+ * <p>
+ * 分配失败时maxId为null，该业务标签未用完的额度被服务端清零，客户端需重新给出额度。
+ *
+ * @author Peng Dan
+ * @since 2.0
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SegmentPush implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 业务标签
+     */
+    private String bizTag;
+
+    /**
+     * 区间内最大的号段编号，推送的区间为[maxId - count + 1, maxId]；分配失败时为null
+     */
+    private Long maxId;
+
+    /**
+     * 推送的号段数量，同时消耗同样多的额度
+     */
+    private Integer count;
+
+    /**
+     * 序列号位宽
+     */
+    private Integer seqBits;
+
+    public boolean isSuccess() {
+        return maxId != null;
+    }
+}